@@ -0,0 +1,27 @@
+param(
+    [string]$ResultsPath = "build/results/jmh/results.json"
+)
+
+# ./gradlew jmh 결과를 docs/BENCHMARKS.md 기준선 표 형식으로 출력
+if (-not (Test-Path $ResultsPath)) {
+    Write-Output "STATUS=FAIL REASON=$ResultsPath not found (run ./gradlew jmh first)"
+    exit 1
+}
+
+$results = Get-Content $ResultsPath -Raw | ConvertFrom-Json
+$first = $results | Select-Object -First 1
+$commit = (git rev-parse --short HEAD).Trim()
+$cpu = if ($IsWindows) { (Get-CimInstance Win32_Processor | Select-Object -First 1).Name } else { ((Get-Content /proc/cpuinfo | Where-Object { $_ -like "model name*" } | Select-Object -First 1) -split ":", 2)[1].Trim() }
+
+Write-Output "- 측정 환경: $cpu, $([Environment]::ProcessorCount) 코어, JDK $($first.jdkVersion) ($($first.vmName)), $([System.Runtime.InteropServices.RuntimeInformation]::OSDescription)"
+Write-Output "- 측정 커밋: $commit"
+Write-Output ""
+Write-Output "| 벤치마크 | 파라미터 | 점수 | 단위 | gc.alloc.rate.norm (B/op) |"
+Write-Output "|---|---|---|---|---|"
+foreach ($r in $results) {
+    $name = ($r.benchmark -split "\.")[-2..-1] -join "."
+    $params = if ($r.params) { ($r.params.PSObject.Properties | ForEach-Object { "$($_.Name)=$($_.Value)" }) -join ", " } else { "" }
+    $alloc = $r.secondaryMetrics.'gc.alloc.rate.norm'
+    $allocText = if ($alloc) { "{0:N1}" -f $alloc.score } else { "" }
+    Write-Output ("| ``{0}`` | {1} | {2:N3} ± {3:N3} | {4} | {5} |" -f $name, $params, $r.primaryMetric.score, $r.primaryMetric.scoreError, $r.primaryMetric.scoreUnit, $allocText)
+}
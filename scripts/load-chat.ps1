@@ -0,0 +1,90 @@
+param(
+    [string]$BaseUrl = "http://localhost:8081",
+    [int]$Concurrency = 200,
+    # 예: -ConcurrencyLevels 100,200,400,800 (각 단계마다 -Requests 건 실행)
+    [int[]]$ConcurrencyLevels = @(),
+    # 이 p99(ms) 이하이고 전부 200이면 해당 동시성을 유지한 것으로 판정
+    [int]$MaxP99Ms = 10000,
+    [int]$Requests = 1000,
+    [int]$TimeoutSec = 120,
+    [string]$ApiKey = $env:APP_BOOTSTRAP_USER_API_KEY
+)
+
+# PowerShell 7+ (ForEach-Object -Parallel) 필요
+if ($PSVersionTable.PSVersion.Major -lt 7) {
+    Write-Output "STATUS=FAIL REASON=PowerShell 7+ required"
+    exit 1
+}
+
+if ([string]::IsNullOrWhiteSpace($ApiKey)) {
+    Write-Output "STATUS=FAIL REASON=ApiKey missing"
+    exit 1
+}
+
+function Percentile($sorted, $p) {
+    if ($sorted.Count -eq 0) { return 0 }
+    $index = [Math]::Min($sorted.Count - 1, [Math]::Ceiling($p * $sorted.Count) - 1)
+    return $sorted[[Math]::Max(0, $index)]
+}
+
+function Invoke-Load($level) {
+    $startedAt = Get-Date
+
+    $results = 1..$Requests | ForEach-Object -ThrottleLimit $level -Parallel {
+        $headers = @{
+            "X-API-Key" = $using:ApiKey
+            "Content-Type" = "application/json"
+        }
+        $payload = @{ message = "load test #$_" } | ConvertTo-Json
+        $watch = [System.Diagnostics.Stopwatch]::StartNew()
+        $code = 0
+        try {
+            $resp = Invoke-WebRequest -Uri "$($using:BaseUrl)/api/chat/completions" -Method Post -Headers $headers -Body $payload -UseBasicParsing -TimeoutSec $using:TimeoutSec
+            $code = $resp.StatusCode
+        } catch {
+            if ($_.Exception.Response -ne $null) {
+                $code = $_.Exception.Response.StatusCode.value__
+            }
+        }
+        $watch.Stop()
+        [pscustomobject]@{ Code = $code; ElapsedMs = $watch.ElapsedMilliseconds }
+    }
+
+    $totalSec = ((Get-Date) - $startedAt).TotalSeconds
+    $ok = @($results | Where-Object { $_.Code -eq 200 })
+    $latencies = @($ok | ForEach-Object { $_.ElapsedMs } | Sort-Object)
+    $p99 = Percentile $latencies 0.99
+    $codes = ($results | Group-Object Code | ForEach-Object { "$($_.Name):$($_.Count)" }) -join ","
+
+    Write-Host "CONCURRENCY=$level REQUESTS=$Requests"
+    Write-Host "SUCCESS=$($ok.Count) CODES=$codes"
+    Write-Host ("THROUGHPUT_RPS={0:N1}" -f ($Requests / $totalSec))
+    Write-Host "LATENCY_MS p50=$(Percentile $latencies 0.50) p95=$(Percentile $latencies 0.95) p99=$p99"
+
+    return ($ok.Count -eq $Requests -and $p99 -le $MaxP99Ms)
+}
+
+if ($ConcurrencyLevels.Count -eq 0) {
+    if (Invoke-Load $Concurrency) {
+        Write-Output "STATUS=OK"
+        exit 0
+    }
+    Write-Output "STATUS=DEGRADED"
+    exit 3
+}
+
+# 동시성을 올려 가며 실패하거나 p99 가 한도를 넘기 직전 단계를 유지 동시성으로 보고
+$best = 0
+foreach ($level in $ConcurrencyLevels) {
+    if (-not (Invoke-Load $level)) {
+        break
+    }
+    $best = $level
+}
+Write-Output "SUSTAINED_CONCURRENCY=$best MAX_P99_MS=$MaxP99Ms"
+if ($best -gt 0) {
+    Write-Output "STATUS=OK"
+    exit 0
+}
+Write-Output "STATUS=DEGRADED"
+exit 3
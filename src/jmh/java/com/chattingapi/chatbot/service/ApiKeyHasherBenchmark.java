@@ -0,0 +1,59 @@
+package com.chattingapi.chatbot.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+// 요청마다 인증 캐시 키를 만들 때 호출됨. hex 변환 비용을 SHA-256 자체와 분리해서 봄
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ApiKeyHasherBenchmark {
+
+    private final ApiKeyHasher hasher = new ApiKeyHasher();
+    private final String apiKey = "cka_3f9c1e0b7a2d4c6e8f0a1b3c5d7e9f1a";
+    private final byte[] digest = sha256(apiKey);
+
+    @Benchmark
+    public String hash() {
+        return hasher.hash(apiKey);
+    }
+
+    @Benchmark
+    public byte[] digestOnly() {
+        return sha256(apiKey);
+    }
+
+    // 현재 구현의 toHex (바이트마다 String.format)
+    @Benchmark
+    public String hexStringFormat() {
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    // 비교 대상
+    @Benchmark
+    public String hexFormat() {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.chattingapi.chatbot.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 스트림 응답 1건(tokens 개 delta)을 chunkBytes 크기로 잘라 디코딩. 네트워크 청크 경계가 줄 중간에 걸리는 경우 포함
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OpenAiSseDecoderBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    @Param({"200"})
+    private int tokens;
+
+    @Param({"64", "8192"})
+    private int chunkBytes;
+
+    private final OpenAiSseDecoder decoder = new OpenAiSseDecoder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[][] chunks;
+    private byte[] completionJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (int i = 0; i < tokens; i++) {
+            stream.writeBytes(("data: {\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1700000000,"
+                    + "\"model\":\"gpt-4o-mini\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\" token" + i + "\"},"
+                    + "\"logprobs\":null,\"finish_reason\":null}]}\n\n").getBytes(StandardCharsets.UTF_8));
+        }
+        stream.writeBytes("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        byte[] all = stream.toByteArray();
+
+        List<byte[]> parts = new ArrayList<>();
+        for (int offset = 0; offset < all.length; offset += chunkBytes) {
+            byte[] part = new byte[Math.min(chunkBytes, all.length - offset)];
+            System.arraycopy(all, offset, part, 0, part.length);
+            parts.add(part);
+        }
+        chunks = parts.toArray(byte[][]::new);
+
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < tokens; i++) {
+            content.append(" token").append(i);
+        }
+        completionJson = objectMapper.writeValueAsBytes(Map.of(
+                "id", "chatcmpl-1",
+                "object", "chat.completion",
+                "model", "gpt-4o-mini",
+                "choices", List.of(Map.of(
+                        "index", 0,
+                        "message", Map.of("role", "assistant", "content", content.toString()),
+                        "finish_reason", "stop"
+                )),
+                "usage", Map.of("prompt_tokens", 500, "completion_tokens", tokens, "total_tokens", 500 + tokens)
+        ));
+    }
+
+    @Benchmark
+    public long decodeStream() {
+        Flux<DataBuffer> body = Flux.fromArray(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return decoder.decode(body).count().block();
+    }
+
+    // 일반 응답: WebClient 가 Map 으로 역직렬화한 뒤 content 추출
+    @Benchmark
+    public String parseCompletion() throws IOException {
+        return OpenAIService.extractContent(objectMapper.readValue(completionJson, MAP_TYPE));
+    }
+}
@@ -0,0 +1,89 @@
+package com.chattingapi.chatbot.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class RateLimitBenchmark {
+
+    @Param({"1", "10000"})
+    private int keyCount;
+
+    @Param({"60", "1000"})
+    private int permitsPerWindow;
+
+    private String[] keys;
+    private LegacyDequeLimiter legacy;
+    private LocalRateLimiter local;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "api-key-" + i;
+        }
+        legacy = new LegacyDequeLimiter(permitsPerWindow, 60);
+        local = new LocalRateLimiter(permitsPerWindow, Duration.ofSeconds(60), 100_000);
+    }
+
+    @Benchmark
+    public boolean legacyDeque() {
+        return legacy.tryAcquire(nextKey(), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean slidingWindowCas() {
+        return local.tryAcquire(nextKey(), System.currentTimeMillis());
+    }
+
+    private String nextKey() {
+        return keyCount == 1 ? keys[0] : keys[ThreadLocalRandom.current().nextInt(keyCount)];
+    }
+
+    // 이전 RateLimitService 구현 (비교 기준): 키별 타임스탬프 Deque 를 synchronized 로 정리하는 슬라이딩 로그
+    static final class LegacyDequeLimiter {
+
+        private final ConcurrentMap<String, Deque<Long>> windows = new ConcurrentHashMap<>();
+        private final int requestsPerWindow;
+        private final long windowSeconds;
+
+        LegacyDequeLimiter(int requestsPerWindow, long windowSeconds) {
+            this.requestsPerWindow = requestsPerWindow;
+            this.windowSeconds = windowSeconds;
+        }
+
+        boolean tryAcquire(String key, long now) {
+            long windowStart = now - (Math.max(1, windowSeconds) * 1000L);
+            Deque<Long> queue = windows.computeIfAbsent(key, ignored -> new ArrayDeque<>());
+            synchronized (queue) {
+                while (!queue.isEmpty() && queue.peekFirst() < windowStart) {
+                    queue.pollFirst();
+                }
+                if (queue.size() >= Math.max(1, requestsPerWindow)) {
+                    return false;
+                }
+                queue.addLast(now);
+                return true;
+            }
+        }
+    }
+}
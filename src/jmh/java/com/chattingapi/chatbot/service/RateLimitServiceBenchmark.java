@@ -0,0 +1,92 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.RateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// RateLimitBenchmark 는 리미터 자료구조만, 여기서는 서비스 진입점(JFR/지표/예외 포함)을 8 스레드로 측정
+// permitsPerWindow=60 이면 대부분 거절 경로(RateLimitedException 생성)를 타게 됨
+// permitsPerWindow=65535(상한)는 허용 경로. 한 키가 윈도우 안에서 상한에 닿지 않도록 스레드마다
+// ROTATE_EVERY 호출마다 다음 세대 키로 넘어감. 서비스는 반복마다 새로 만들고, 키 하나에 쌓이는 건수는
+// 반복 전체 호출 수 / 풀 크기(약 6만)라 2초 반복으로는 상한 근처에도 가지 않음
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class RateLimitServiceBenchmark {
+
+    private static final int KEY_POOL = 1 << 16;
+    private static final int ROTATE_EVERY = 2048;
+
+    @Param({"1", "10000"})
+    private int keyCount;
+
+    @Param({"60", "65535"})
+    private int permitsPerWindow;
+
+    private String[] keys;
+    private int generations;
+    private RateLimitService service;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int remaining = ROTATE_EVERY;
+        int base;
+        int generation;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() throws ReflectiveOperationException {
+        // 키 풀은 max-tracked-keys 보다 작게 유지해 Caffeine 축출로 카운트가 초기화되지 않게 함
+        generations = permitsPerWindow >= LocalRateLimiter.MAX_PERMITS ? KEY_POOL / keyCount : 1;
+        keys = new String[keyCount * generations];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "api-key-" + i;
+        }
+        service = new RateLimitService(
+                new StaticListableBeanFactory().getBeanProvider(PostgresRateLimiter.class),
+                new SimpleMeterRegistry()
+        );
+        set("enabled", true);
+        set("requestsPerWindow", permitsPerWindow);
+        set("windowSeconds", 60L);
+        set("maxTrackedKeys", 100_000L);
+        service.init();
+    }
+
+    @Benchmark
+    public boolean checkOrThrow(Cursor cursor) {
+        if (generations > 1 && --cursor.remaining == 0) {
+            cursor.remaining = ROTATE_EVERY;
+            cursor.generation = (cursor.generation + 1) % generations;
+            cursor.base = cursor.generation * keyCount;
+        }
+        String key = keyCount == 1 ? keys[cursor.base] : keys[cursor.base + ThreadLocalRandom.current().nextInt(keyCount)];
+        try {
+            service.checkOrThrow(key);
+            return true;
+        } catch (RateLimitedException e) {
+            return false;
+        }
+    }
+
+    private void set(String name, Object value) throws ReflectiveOperationException {
+        Field field = RateLimitService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+}
@@ -0,0 +1,58 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 업스트림 요청 1건 준비 비용: 메시지 Map 변환 -> 본문 Map.of -> JSON 직렬화, 그리고 캐시/single-flight 키
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestBodyBenchmark {
+
+    @Param({"10", "50"})
+    private int messageCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Message> context;
+    private List<Map<String, String>> messages;
+
+    @Setup
+    public void setUp() {
+        context = new ArrayList<>(messageCount);
+        for (int i = 0; i < messageCount; i++) {
+            String role = i % 2 == 0 ? "user" : "assistant";
+            context.add(Message.of(null, role, "message " + i + " " + "lorem ipsum dolor sit amet ".repeat(10)));
+        }
+        messages = OpenAIService.buildMessages(context);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> buildMessages() {
+        return OpenAIService.buildMessages(context);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws IOException {
+        Map<String, Object> body = OpenAIService.requestBody("gpt-4o-mini", OpenAIService.buildMessages(context), false);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public String requestKey() {
+        return ChatResponseCache.key("gpt-4o-mini", 0.7, messages);
+    }
+}
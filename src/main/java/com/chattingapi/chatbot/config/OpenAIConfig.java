@@ -1,20 +1,135 @@
 package com.chattingapi.chatbot.config;
 
+import com.chattingapi.chatbot.service.UpstreamEndpoint;
+import com.chattingapi.chatbot.service.UpstreamRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(OpenAiEndpointProperties.class)
+@Slf4j
 public class OpenAIConfig {
 
     @Value("${openai.base-url}")
     private String baseUrl;
 
+    @Value("${openai.api-key:}")
+    private String apiKey;
+
+    @Value("${openai.model}")
+    private String model;
+
+    @Value("${openai.routing.eject-after-failures:3}")
+    private int ejectAfterFailures;
+
+    @Value("${openai.routing.eject-seconds:30}")
+    private long ejectSeconds;
+
+    @Value("${openai.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${openai.http.pending-acquire-max:1000}")
+    private int pendingAcquireMax;
+
+    @Value("${openai.http.pending-acquire-timeout-ms:2000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${openai.http.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${openai.http.max-idle-seconds:30}")
+    private long maxIdleSeconds;
+
+    @Value("${openai.http.max-life-seconds:300}")
+    private long maxLifeSeconds;
+
+    @Value("${openai.http.evict-interval-seconds:30}")
+    private long evictIntervalSeconds;
+
+    @Value("${openai.http.compress:true}")
+    private boolean compress;
+
+    @Value("${openai.http.http2:true}")
+    private boolean http2;
+
+    // 풀 지표: reactor.netty.connection.provider.{total,active,idle,pending}.connections{name=openai}
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAiConnectionProvider() {
+        return ConnectionProvider.builder("openai")
+                .maxConnections(Math.max(1, maxConnections))
+                .pendingAcquireMaxCount(Math.max(1, pendingAcquireMax))
+                .pendingAcquireTimeout(Duration.ofMillis(Math.max(1, pendingAcquireTimeoutMs)))
+                .maxIdleTime(Duration.ofSeconds(Math.max(1, maxIdleSeconds)))
+                .maxLifeTime(Duration.ofSeconds(Math.max(1, maxLifeSeconds)))
+                .evictInBackground(Duration.ofSeconds(Math.max(1, evictIntervalSeconds)))
+                .metrics(true)
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
+    public UpstreamRouter upstreamRouter(
+            ConnectionProvider openAiConnectionProvider,
+            OpenAiEndpointProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        List<OpenAiEndpointProperties.Endpoint> configured = properties.endpoints() == null || properties.endpoints().isEmpty()
+                ? List.of(new OpenAiEndpointProperties.Endpoint("default", baseUrl, apiKey, model, 1))
+                : properties.endpoints();
+
+        List<UpstreamEndpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < configured.size(); i++) {
+            OpenAiEndpointProperties.Endpoint endpoint = configured.get(i);
+            String name = isBlank(endpoint.name()) ? "endpoint-" + i : endpoint.name();
+            String url = isBlank(endpoint.baseUrl()) ? baseUrl : endpoint.baseUrl();
+            String key = (isBlank(endpoint.apiKey()) ? apiKey : endpoint.apiKey()).trim();
+            if (key.isBlank()) {
+                log.warn("OpenAI endpoint skipped (empty api key) endpoint={}", name);
+                continue;
+            }
+            endpoints.add(new UpstreamEndpoint(
+                    name,
+                    url,
+                    webClient(openAiConnectionProvider, url),
+                    key,
+                    isBlank(endpoint.model()) ? model : endpoint.model(),
+                    endpoint.weight() == null ? 1 : endpoint.weight()
+            ));
+        }
+        return new UpstreamRouter(endpoints, ejectAfterFailures, Duration.ofSeconds(Math.max(1, ejectSeconds)), meterRegistry);
+    }
+
+    private WebClient webClient(ConnectionProvider connectionProvider, String url) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.max(1, connectTimeoutMs))
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .compress(compress)
+                // 요청 지표의 uri 태그는 경로 하나로 고정해 카디널리티를 제한
+                .metrics(true, uri -> "/chat/completions");
+        // h2 는 TLS(ALPN) 에서만 협상. 평문 base-url(로컬 목 서버 등)은 HTTP/1.1 유지
+        if (http2 && url.startsWith("https")) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
         return WebClient.builder()
-                .baseUrl(baseUrl)
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
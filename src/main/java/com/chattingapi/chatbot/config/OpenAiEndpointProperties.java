@@ -0,0 +1,13 @@
+package com.chattingapi.chatbot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+// openai.endpoints 가 비어 있으면 openai.base-url / api-key / model 로 단일 엔드포인트 구성
+@ConfigurationProperties(prefix = "openai")
+public record OpenAiEndpointProperties(List<Endpoint> endpoints) {
+
+    public record Endpoint(String name, String baseUrl, String apiKey, String model, Integer weight) {
+    }
+}
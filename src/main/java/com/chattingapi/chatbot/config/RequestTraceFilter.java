@@ -1,23 +1,40 @@
 package com.chattingapi.chatbot.config;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
-@Slf4j
 public class RequestTraceFilter extends OncePerRequestFilter {
 
     private static final String REQUEST_ID_HEADER = "X-Request-Id";
     private static final String TRACE_ID_MDC_KEY = "traceId";
+    private static final int MAX_TRACE_ID_LENGTH = 128;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // logback-spring.xml 에서 비동기 appender 로 분리된 전용 로거
+    private static final Logger accessLog = LoggerFactory.getLogger("access");
+
+    @Value("${app.access-log.enabled:true}")
+    private boolean accessLogEnabled;
+
+    @Value("${app.access-log.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${app.access-log.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
 
     @Override
     protected void doFilterInternal(
@@ -28,28 +45,86 @@ public class RequestTraceFilter extends OncePerRequestFilter {
         String traceId = resolveTraceId(request);
         MDC.put(TRACE_ID_MDC_KEY, traceId);
         response.setHeader(REQUEST_ID_HEADER, traceId);
-        long startedAt = System.currentTimeMillis();
+        long startedAt = System.nanoTime();
 
         try {
             filterChain.doFilter(request, response);
         } finally {
-            long elapsedMs = System.currentTimeMillis() - startedAt;
-            log.info(
-                    "request method={} path={} status={} elapsedMs={}",
-                    request.getMethod(),
-                    request.getRequestURI(),
-                    response.getStatus(),
-                    elapsedMs
-            );
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        logRequest(request, response, startedAt, traceId);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                logRequest(request, response, startedAt, traceId);
+            }
             MDC.remove(TRACE_ID_MDC_KEY);
         }
     }
 
+    // 오류/느린 요청은 항상, 나머지는 sample-rate 비율만 기록. reason 으로 집계 시 가중치를 되돌릴 수 있음
+    private void logRequest(HttpServletRequest request, HttpServletResponse response, long startedAt, String traceId) {
+        if (!accessLogEnabled || !accessLog.isInfoEnabled()) {
+            return;
+        }
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        int status = response.getStatus();
+        String reason;
+        if (status >= 400) {
+            reason = "error";
+        } else if (elapsedMs >= slowThresholdMs) {
+            reason = "slow";
+        } else if (sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+            reason = "sampled";
+        } else {
+            return;
+        }
+        accessLog.atInfo()
+                .addKeyValue("traceId", traceId)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("status", status)
+                .addKeyValue("elapsedMs", elapsedMs)
+                .addKeyValue("reason", reason)
+                .log("request");
+    }
+
     private String resolveTraceId(HttpServletRequest request) {
         String incoming = request.getHeader(REQUEST_ID_HEADER);
         if (incoming != null && !incoming.isBlank()) {
-            return incoming.strip();
+            String stripped = incoming.strip();
+            return stripped.length() > MAX_TRACE_ID_LENGTH ? stripped.substring(0, MAX_TRACE_ID_LENGTH) : stripped;
+        }
+        return newTraceId();
+    }
+
+    // 추적용 식별자라 암호학적 난수가 필요 없음. SecureRandom 을 쓰는 UUID 대신 128비트 hex 를 직접 생성
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] out = new char[32];
+        writeHex(out, 0, random.nextLong());
+        writeHex(out, 16, random.nextLong());
+        return new String(out);
+    }
+
+    private static void writeHex(char[] out, int offset, long value) {
+        for (int i = 15; i >= 0; i--) {
+            out[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
         }
-        return UUID.randomUUID().toString().replace("-", "");
     }
 }
@@ -0,0 +1,25 @@
+package com.chattingapi.chatbot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class SchedulerConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    // JPA 저장, SSE 쓰기처럼 블로킹되는 후속 작업을 Netty 이벤트 루프 밖에서 실행
+    @Bean
+    public Scheduler blockingTaskScheduler() {
+        if (virtualThreadsEnabled) {
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "blocking-vt");
+        }
+        return Schedulers.boundedElastic();
+    }
+}
@@ -2,18 +2,32 @@ package com.chattingapi.chatbot.controller;
 
 import com.chattingapi.chatbot.dto.AdminApiKeyResponse;
 import com.chattingapi.chatbot.dto.ApiResponse;
+import com.chattingapi.chatbot.dto.JfrRecordingStatus;
+import com.chattingapi.chatbot.dto.UpstreamEndpointStats;
 import com.chattingapi.chatbot.exception.UnauthorizedException;
 import com.chattingapi.chatbot.service.AdminKeyService;
+import com.chattingapi.chatbot.service.JfrRecordingService;
+import com.chattingapi.chatbot.service.UpstreamRouter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,6 +36,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminController {
 
     private final AdminKeyService adminKeyService;
+    private final UpstreamRouter upstreamRouter;
+    private final JfrRecordingService jfrRecordingService;
 
     @Value("${app.admin.api-key:}")
     private String adminApiKey;
@@ -53,6 +69,62 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success());
     }
 
+    @GetMapping("/upstreams")
+    public ResponseEntity<ApiResponse<List<UpstreamEndpointStats>>> upstreams(
+            @RequestHeader(name = "X-Admin-Key", required = false) String key
+    ) {
+        requireAdminKey(key);
+        return ResponseEntity.ok(ApiResponse.success(upstreamRouter.stats()));
+    }
+
+    @PostMapping("/jfr/start")
+    public ResponseEntity<ApiResponse<JfrRecordingStatus>> startRecording(
+            @RequestHeader(name = "X-Admin-Key", required = false) String key,
+            @RequestParam(defaultValue = "profile") String settings,
+            @RequestParam(defaultValue = "300") long maxSeconds
+    ) {
+        requireAdminKey(key);
+        return ResponseEntity.ok(ApiResponse.success(jfrRecordingService.start(settings, maxSeconds)));
+    }
+
+    @GetMapping("/jfr")
+    public ResponseEntity<ApiResponse<JfrRecordingStatus>> recordingStatus(
+            @RequestHeader(name = "X-Admin-Key", required = false) String key
+    ) {
+        requireAdminKey(key);
+        return ResponseEntity.ok(ApiResponse.success(jfrRecordingService.status()));
+    }
+
+    // 녹화를 멈추지 않고 현재까지의 내용을 .jfr 파일로 내려줌
+    @GetMapping("/jfr/dump")
+    public ResponseEntity<StreamingResponseBody> dumpRecording(
+            @RequestHeader(name = "X-Admin-Key", required = false) String key
+    ) {
+        requireAdminKey(key);
+        Path file = jfrRecordingService.dump();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/jfr/stop")
+    public ResponseEntity<ApiResponse<Void>> stopRecording(
+            @RequestHeader(name = "X-Admin-Key", required = false) String key
+    ) {
+        requireAdminKey(key);
+        jfrRecordingService.stop();
+        return ResponseEntity.ok(ApiResponse.success());
+    }
+
     private void requireAdminKey(String key) {
         if (adminApiKey == null || adminApiKey.isBlank()) {
             throw new UnauthorizedException("Admin API not configured");
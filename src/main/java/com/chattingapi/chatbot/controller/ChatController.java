@@ -3,6 +3,7 @@ package com.chattingapi.chatbot.controller;
 import com.chattingapi.chatbot.dto.ApiResponse;
 import com.chattingapi.chatbot.dto.ChatRequest;
 import com.chattingapi.chatbot.dto.ConversationDto;
+import com.chattingapi.chatbot.dto.CursorPage;
 import com.chattingapi.chatbot.dto.MessageDto;
 import com.chattingapi.chatbot.dto.PageResult;
 import com.chattingapi.chatbot.exception.UnauthorizedException;
@@ -12,11 +13,13 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api")
@@ -28,23 +31,25 @@ public class ChatController {
 
     @PostMapping("/chat/completions")
     @Operation(summary = "Generate assistant reply")
-    public ResponseEntity<ApiResponse<MessageDto>> chat(
+    public Mono<ResponseEntity<ApiResponse<MessageDto>>> chat(
             @RequestHeader(name = "X-API-Key", required = false) String apiKey,
+            @RequestHeader(name = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl,
             @Valid @RequestBody ChatRequest request
     ) {
         requireApiKey(apiKey);
-        MessageDto response = chatService.processChat(apiKey, request);
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return chatService.processChat(apiKey, request, bypassCache(cacheControl))
+                .map(response -> ResponseEntity.ok(ApiResponse.success(response)));
     }
 
     @PostMapping(value = "/chat/completions/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(summary = "Generate assistant reply (stream)")
     public SseEmitter chatStream(
             @RequestHeader(name = "X-API-Key", required = false) String apiKey,
+            @RequestHeader(name = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl,
             @Valid @RequestBody ChatRequest request
     ) {
         requireApiKey(apiKey);
-        return chatService.processChatStream(apiKey, request);
+        return chatService.processChatStream(apiKey, request, bypassCache(cacheControl));
     }
 
     @GetMapping("/conversations")
@@ -58,6 +63,17 @@ public class ChatController {
         return ResponseEntity.ok(ApiResponse.success(chatService.getConversations(apiKey, page, size)));
     }
 
+    @GetMapping("/conversations/scroll")
+    @Operation(summary = "List conversations (cursor)")
+    public ResponseEntity<ApiResponse<CursorPage<ConversationDto>>> scrollConversations(
+            @RequestHeader(name = "X-API-Key", required = false) String apiKey,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        requireApiKey(apiKey);
+        return ResponseEntity.ok(ApiResponse.success(chatService.scrollConversations(apiKey, after, size)));
+    }
+
     @GetMapping("/conversations/{id}/messages")
     @Operation(summary = "List messages in a conversation")
     public ResponseEntity<ApiResponse<PageResult<MessageDto>>> getMessages(
@@ -70,6 +86,18 @@ public class ChatController {
         return ResponseEntity.ok(ApiResponse.success(chatService.getMessages(apiKey, id, page, size)));
     }
 
+    @GetMapping("/conversations/{id}/messages/scroll")
+    @Operation(summary = "List messages in a conversation (cursor)")
+    public ResponseEntity<ApiResponse<CursorPage<MessageDto>>> scrollMessages(
+            @RequestHeader(name = "X-API-Key", required = false) String apiKey,
+            @PathVariable @Min(1) Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(200) int size
+    ) {
+        requireApiKey(apiKey);
+        return ResponseEntity.ok(ApiResponse.success(chatService.scrollMessages(apiKey, id, after, size)));
+    }
+
     @DeleteMapping("/conversations/{id}")
     @Operation(summary = "Delete a conversation")
     public ResponseEntity<ApiResponse<Void>> deleteConversation(
@@ -91,6 +119,15 @@ public class ChatController {
         return ResponseEntity.ok(ApiResponse.success(chatService.getConversation(apiKey, id)));
     }
 
+    // Cache-Control: no-cache / no-store 이면 응답 캐시를 건너뜀
+    private boolean bypassCache(String cacheControl) {
+        if (cacheControl == null) {
+            return false;
+        }
+        String value = cacheControl.toLowerCase();
+        return value.contains("no-cache") || value.contains("no-store");
+    }
+
     private void requireApiKey(String apiKey) {
         if (apiKey == null || apiKey.isBlank()) {
             throw new UnauthorizedException("X-API-Key required");
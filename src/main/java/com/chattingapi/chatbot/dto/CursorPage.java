@@ -0,0 +1,19 @@
+package com.chattingapi.chatbot.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(
+        List<T> items,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+    // rows 는 size + 1 건까지 조회한 결과. 초과분이 있으면 다음 페이지가 있음
+    public static <E, T> CursorPage<T> from(List<E> rows, int size, Function<E, T> mapper, Function<E, String> cursor) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursor.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), size, nextCursor, hasNext);
+    }
+}
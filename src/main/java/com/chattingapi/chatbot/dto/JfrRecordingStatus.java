@@ -0,0 +1,12 @@
+package com.chattingapi.chatbot.dto;
+
+import java.time.Instant;
+
+public record JfrRecordingStatus(
+        String name,
+        String state,
+        String settings,
+        Instant startedAt,
+        long maxSeconds
+) {
+}
@@ -0,0 +1,15 @@
+package com.chattingapi.chatbot.dto;
+
+public record UpstreamEndpointStats(
+        String name,
+        String baseUrl,
+        String model,
+        int weight,
+        long latencyEwmaMs,
+        double errorRate,
+        long requests,
+        long failures,
+        boolean ejected,
+        long ejectedForMs
+) {
+}
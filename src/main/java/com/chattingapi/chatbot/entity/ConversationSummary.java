@@ -0,0 +1,53 @@
+package com.chattingapi.chatbot.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "conversation_summaries")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ConversationSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversation_summaries_id_seq")
+    @SequenceGenerator(name = "conversation_summaries_id_seq", sequenceName = "conversation_summaries_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "conversation_id", nullable = false, unique = true)
+    private Long conversationId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String content;
+
+    // 이 시점(created_at, id)까지의 메시지가 요약에 포함됨
+    @Column(name = "covered_until", nullable = false)
+    private OffsetDateTime coveredUntil;
+
+    @Column(name = "covered_message_id", nullable = false)
+    private Long coveredMessageId;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = OffsetDateTime.now();
+    }
+
+    public static ConversationSummary create(Long conversationId) {
+        ConversationSummary s = new ConversationSummary();
+        s.conversationId = conversationId;
+        return s;
+    }
+
+    public void update(String content, Message coveredUntil) {
+        this.content = content;
+        this.coveredUntil = coveredUntil.getCreatedAt();
+        this.coveredMessageId = coveredUntil.getId();
+    }
+}
@@ -1,6 +1,7 @@
 package com.chattingapi.chatbot.exception;
 
 import com.chattingapi.chatbot.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -50,8 +51,11 @@ public class ApiExceptionHandler {
 
     @ExceptionHandler(UpstreamException.class)
     public ResponseEntity<ApiResponse<Void>> handleUpstream(UpstreamException e) {
-        return ResponseEntity.status(e.getStatus())
-                .body(ApiResponse.fail(e.getErrorCode(), e.getMessage()));
+        var response = ResponseEntity.status(e.getStatus());
+        if (e.getRetryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000)));
+        }
+        return response.body(ApiResponse.fail(e.getErrorCode(), e.getMessage()));
     }
 
     @ExceptionHandler(Exception.class)
@@ -6,5 +6,6 @@ public enum ErrorCode {
     RATE_LIMITED,
     NOT_FOUND,
     UPSTREAM_ERROR,
+    UPSTREAM_UNAVAILABLE,
     INTERNAL_ERROR
 }
@@ -3,20 +3,78 @@ package com.chattingapi.chatbot.exception;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+import java.time.Duration;
+
 @Getter
 public class UpstreamException extends RuntimeException {
     private final HttpStatus status;
     private final ErrorCode errorCode;
+    // 업스트림이 알려준 재시도 가능 시점 (Retry-After 등), 없으면 null
+    private final Duration retryAfter;
+    // 업스트림 응답의 HTTP 상태 코드. 응답을 받지 못했거나 로컬에서 만든 오류면 0
+    private final int upstreamStatus;
+    // 응답을 받기 전에 끊긴 실패
+    private final boolean timeout;
+    private final boolean networkError;
+    // 이 엔드포인트는 429 였지만 다른 엔드포인트가 살아 있어 바로 다시 보낼 수 있는 실패
+    private final boolean failover;
 
     public UpstreamException(String message) {
-        super(message);
-        this.status = HttpStatus.BAD_GATEWAY;
-        this.errorCode = ErrorCode.UPSTREAM_ERROR;
+        this(HttpStatus.BAD_GATEWAY, ErrorCode.UPSTREAM_ERROR, message, null);
     }
 
     public UpstreamException(HttpStatus status, ErrorCode errorCode, String message) {
+        this(status, errorCode, message, null);
+    }
+
+    public UpstreamException(HttpStatus status, ErrorCode errorCode, String message, Duration retryAfter) {
+        this(status, errorCode, message, retryAfter, 0, false, false, false);
+    }
+
+    private UpstreamException(HttpStatus status, ErrorCode errorCode, String message, Duration retryAfter,
+                              int upstreamStatus, boolean timeout, boolean networkError, boolean failover) {
         super(message);
         this.status = status;
         this.errorCode = errorCode;
+        this.retryAfter = retryAfter;
+        this.upstreamStatus = upstreamStatus;
+        this.timeout = timeout;
+        this.networkError = networkError;
+        this.failover = failover;
+    }
+
+    // 업스트림이 오류 응답을 돌려준 경우. 429 는 RATE_LIMITED, 나머지는 UPSTREAM_ERROR 로 클라이언트에 알림
+    public static UpstreamException response(int upstreamStatus, String message, Duration retryAfter) {
+        if (upstreamStatus == 429) {
+            return new UpstreamException(HttpStatus.TOO_MANY_REQUESTS, ErrorCode.RATE_LIMITED, message, retryAfter,
+                    upstreamStatus, false, false, false);
+        }
+        return new UpstreamException(HttpStatus.BAD_GATEWAY, ErrorCode.UPSTREAM_ERROR, message, retryAfter,
+                upstreamStatus, false, false, false);
+    }
+
+    public static UpstreamException timeout(String message) {
+        return new UpstreamException(HttpStatus.BAD_GATEWAY, ErrorCode.UPSTREAM_ERROR, message, null, 0, true, false, false);
+    }
+
+    public static UpstreamException network(String message) {
+        return new UpstreamException(HttpStatus.BAD_GATEWAY, ErrorCode.UPSTREAM_ERROR, message, null, 0, false, true, false);
+    }
+
+    public static UpstreamException failover(String message) {
+        return new UpstreamException(HttpStatus.BAD_GATEWAY, ErrorCode.UPSTREAM_ERROR, message, null, 0, false, false, true);
+    }
+
+    public boolean isServerError() {
+        return upstreamStatus >= 500;
+    }
+
+    public boolean isRateLimited() {
+        return upstreamStatus == 429;
+    }
+
+    // 업스트림 과부하/장애 신호 (429, 5xx, 네트워크 오류, 타임아웃). 400/401/404 처럼 요청 자체의 문제는 제외
+    public boolean isUpstreamFault() {
+        return timeout || networkError || isRateLimited() || isServerError();
     }
 }
@@ -1,10 +1,14 @@
 package com.chattingapi.chatbot.repository;
 
 import com.chattingapi.chatbot.entity.Conversation;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +16,20 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     List<Conversation> findByUserIdOrderByUpdatedAtDesc(Long userId);
     Page<Conversation> findByUserIdOrderByUpdatedAtDesc(Long userId, Pageable pageable);
     Optional<Conversation> findByIdAndUserId(Long id, Long userId);
+
+    // 키셋 페이지네이션 (idx_conversations_user_updated 사용, count 쿼리 없음)
+    List<Conversation> findByUserIdOrderByUpdatedAtDescIdDesc(Long userId, Limit limit);
+
+    @Query("""
+            select c from Conversation c
+            where c.user.id = :userId
+              and (c.updatedAt < :updatedAt or (c.updatedAt = :updatedAt and c.id < :id))
+            order by c.updatedAt desc, c.id desc
+            """)
+    List<Conversation> findPageAfter(
+            @Param("userId") Long userId,
+            @Param("updatedAt") OffsetDateTime updatedAt,
+            @Param("id") Long id,
+            Limit limit
+    );
 }
@@ -0,0 +1,10 @@
+package com.chattingapi.chatbot.repository;
+
+import com.chattingapi.chatbot.entity.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+    Optional<ConversationSummary> findByConversationId(Long conversationId);
+}
@@ -1,16 +1,75 @@
 package com.chattingapi.chatbot.repository;
 
 import com.chattingapi.chatbot.entity.Message;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByConversationIdAndConversationUserIdOrderByCreatedAtAsc(Long conversationId, Long userId);
     Page<Message> findByConversationIdAndConversationUserIdOrderByCreatedAtAsc(Long conversationId, Long userId, Pageable pageable);
 
-    // 최근 10개 컨텍스트
-    List<Message> findTop10ByConversationIdAndConversationUserIdOrderByCreatedAtDesc(Long conversationId, Long userId);
+    // 최근 N개 컨텍스트
+    List<Message> findByConversationIdAndConversationUserIdOrderByCreatedAtDesc(Long conversationId, Long userId, Limit limit);
+
+    // 컨텍스트 캐시 검증용 마지막 메시지 id (idx_messages_conversation_created 사용)
+    @Query("""
+            select m.id from Message m
+            where m.conversation.id = :conversationId
+            order by m.createdAt desc, m.id desc
+            """)
+    List<Long> findLatestIds(@Param("conversationId") Long conversationId, Limit limit);
+
+    // 키셋 페이지네이션 (idx_messages_conversation_created 사용, count 쿼리 없음)
+    List<Message> findByConversationIdAndConversationUserIdOrderByCreatedAtAscIdAsc(Long conversationId, Long userId, Limit limit);
+
+    @Query("""
+            select m from Message m
+            where m.conversation.id = :conversationId
+              and m.conversation.user.id = :userId
+              and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id))
+            order by m.createdAt asc, m.id asc
+            """)
+    List<Message> findPageAfter(
+            @Param("conversationId") Long conversationId,
+            @Param("userId") Long userId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // 요약 대상 (소유자 확인 없이 내부 작업에서만 사용)
+    long countByConversationId(Long conversationId);
+
+    List<Message> findByConversationIdOrderByCreatedAtAscIdAsc(Long conversationId, Limit limit);
+
+    @Query("""
+            select count(m) from Message m
+            where m.conversation.id = :conversationId
+              and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id))
+            """)
+    long countAfter(
+            @Param("conversationId") Long conversationId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") Long id
+    );
+
+    @Query("""
+            select m from Message m
+            where m.conversation.id = :conversationId
+              and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id))
+            order by m.createdAt asc, m.id asc
+            """)
+    List<Message> findAfter(
+            @Param("conversationId") Long conversationId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
 }
@@ -0,0 +1,53 @@
+package com.chattingapi.chatbot.service;
+
+// AIMD: 정상 응답마다 limit 을 1/limit 씩 늘리고, 느린 응답이나 과부하 실패(타임아웃, 5xx)에서는 backoffRatio 배로 줄임
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.latencyThresholdNanos = Math.max(1, latencyThresholdNanos);
+        this.backoffRatio = Math.min(0.99, Math.max(0.1, backoffRatio));
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    // 응답 결과로 limit 조정. in-flight 는 release 에서 줄임
+    public synchronized void onSample(long latencyNanos, boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= (int) limit) {
+            // 절반 이상 쓰고 있을 때만 늘려서 한가할 때 limit 이 무한정 커지지 않도록 함
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized void release() {
+        if (inFlight > 0) {
+            inFlight--;
+        }
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
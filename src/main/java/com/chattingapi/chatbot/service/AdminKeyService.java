@@ -19,6 +19,7 @@ public class AdminKeyService {
 
     private final UserRepository userRepository;
     private final ApiKeyHasher apiKeyHasher;
+    private final ApiKeyAuthCache apiKeyAuthCache;
     private final SecureRandom secureRandom = new SecureRandom();
 
     @Transactional
@@ -26,6 +27,7 @@ public class AdminKeyService {
         String rawKey = generateRawKey();
         String hashed = apiKeyHasher.hash(rawKey);
         User user = userRepository.save(User.create(hashed));
+        apiKeyAuthCache.evictKey(hashed);
         return new AdminApiKeyResponse(user.getId(), rawKey);
     }
 
@@ -34,7 +36,10 @@ public class AdminKeyService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         String rawKey = generateRawKey();
-        user.updateApiKey(apiKeyHasher.hash(rawKey));
+        String hashed = apiKeyHasher.hash(rawKey);
+        user.updateApiKey(hashed);
+        apiKeyAuthCache.evictUser(userId);
+        apiKeyAuthCache.evictKey(hashed);
         return new AdminApiKeyResponse(user.getId(), rawKey);
     }
 
@@ -44,6 +49,7 @@ public class AdminKeyService {
             throw new NotFoundException("User not found");
         }
         userRepository.deleteById(userId);
+        apiKeyAuthCache.evictUser(userId);
     }
 
     private String generateRawKey() {
@@ -0,0 +1,73 @@
+package com.chattingapi.chatbot.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+public class ApiKeyAuthCache {
+
+    private static final Long UNKNOWN_USER = -1L;
+
+    private final Cache<String, Long> cache;
+
+    public ApiKeyAuthCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth-cache.max-entries:10000}") long maxEntries,
+            @Value("${app.auth-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.auth-cache.negative-ttl-seconds:30}") long negativeTtlSeconds
+    ) {
+        Duration ttl = Duration.ofSeconds(Math.max(1, ttlSeconds));
+        Duration negativeTtl = Duration.ofSeconds(Math.max(1, negativeTtlSeconds));
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxEntries))
+                .expireAfter(Expiry.<String, Long>writing((key, userId) -> UNKNOWN_USER.equals(userId) ? negativeTtl : ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.api-key");
+    }
+
+    public Long resolveUserId(String hashedApiKey, Supplier<Long> loader) {
+        Long userId = cache.get(hashedApiKey, ignored -> {
+            Long loaded = loader.get();
+            return loaded == null ? UNKNOWN_USER : loaded;
+        });
+        return UNKNOWN_USER.equals(userId) ? null : userId;
+    }
+
+    public void evictKey(String hashedApiKey) {
+        cache.invalidate(hashedApiKey);
+        afterCommit(() -> cache.invalidate(hashedApiKey));
+    }
+
+    public void evictUser(Long userId) {
+        cache.asMap().values().removeIf(userId::equals);
+        afterCommit(() -> cache.asMap().values().removeIf(userId::equals));
+    }
+
+    public void clearAll() {
+        cache.invalidateAll();
+    }
+
+    // 커밋 전에 다른 요청이 옛 값을 다시 적재할 수 있으므로 커밋 후 한 번 더 비움
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,185 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// 채팅 파이프라인 지표. 태그 값은 고정된 집합(엔드포인트 이름, 오류 코드, 단계 이름)만 사용
+// 업스트림 시도와 DB 단계는 같은 구간을 JFR 이벤트로도 남김
+@Component
+public class ChatMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final Timer firstToken;
+    private final DistributionSummary tokensPerSecond;
+    private final Timer authLookup;
+    // 태그 조합별 미터를 한 번만 등록 (요청마다 빌더 생성과 레지스트리 조회를 피함)
+    private final Map<RequestTags, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> dbTimers = new ConcurrentHashMap<>();
+    private final Map<ErrorCode, Counter> fallbacks = new ConcurrentHashMap<>();
+
+    public ChatMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("chat.sse.active", activeStreams, AtomicInteger::get)
+                .description("open SSE streams")
+                .register(meterRegistry);
+        this.firstToken = Timer.builder("openai.stream.first-token")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+        this.tokensPerSecond = DistributionSummary.builder("openai.stream.tokens-per-second")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(500.0)
+                .register(meterRegistry);
+        this.authLookup = Timer.builder("chat.auth.lookup")
+                .description("API key lookups that missed the auth cache")
+                .register(meterRegistry);
+    }
+
+    // 업스트림 시도 1회의 지연을 결과별로 기록
+    public <T> Mono<T> upstream(String endpoint, Mono<T> call) {
+        return Mono.defer(() -> {
+            Span span = new Span("chat", endpoint);
+            return call
+                    .doOnSuccess(ignored -> span.finish("success", 0))
+                    .doOnError(e -> span.finish(outcome(e), 0))
+                    .doOnCancel(() -> span.finish("cancelled", 0));
+        });
+    }
+
+    // 스트림 청크 하나를 토큰 하나로 계산 (OpenAI 스트림은 delta 마다 대체로 토큰 1개)
+    public <T> Flux<T> upstreamStream(String endpoint, Flux<T> call) {
+        return Flux.defer(() -> {
+            Span span = new Span("stream", endpoint);
+            AtomicLong firstAt = new AtomicLong();
+            AtomicLong chunks = new AtomicLong();
+            return call
+                    .doOnNext(ignored -> {
+                        if (chunks.getAndIncrement() == 0) {
+                            long now = System.nanoTime();
+                            firstAt.set(now);
+                            firstToken.record(now - span.startedAt, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        span.finish("success", chunks.get());
+                        long elapsed = System.nanoTime() - firstAt.get();
+                        if (chunks.get() > 1 && elapsed > 0) {
+                            tokensPerSecond.record((chunks.get() - 1) * 1e9 / elapsed);
+                        }
+                    })
+                    .doOnError(e -> span.finish(outcome(e), chunks.get()))
+                    .doOnCancel(() -> span.finish("cancelled", chunks.get()));
+        });
+    }
+
+    public void fallback(ErrorCode reason) {
+        fallbacks.computeIfAbsent(reason, code -> Counter.builder("openai.fallback")
+                        .tag("reason", tagValue(code))
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    // 반환된 Runnable 은 여러 번 호출돼도 한 번만 감소
+    public Runnable streamOpened() {
+        activeStreams.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                activeStreams.decrementAndGet();
+            }
+        };
+    }
+
+    public <T> T db(String phase, Supplier<T> work) {
+        Timer timer = dbTimers.computeIfAbsent(phase, name -> Timer.builder("chat.db")
+                .tag("phase", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        DbPhaseEvent event = new DbPhaseEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            T result = timer.record(work);
+            success = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    public Timer authLookup() {
+        return authLookup;
+    }
+
+    // 시도 1회의 종료를 한 번만 기록 (성공 직후 취소가 겹치는 경우 등)
+    private final class Span {
+
+        private final String type;
+        private final String endpoint;
+        private final long startedAt = System.nanoTime();
+        private final UpstreamCallEvent event = new UpstreamCallEvent();
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Span(String type, String endpoint) {
+            this.type = type;
+            this.endpoint = endpoint;
+            event.begin();
+        }
+
+        void finish(String outcome, long chunks) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            requestTimers.computeIfAbsent(new RequestTags(type, endpoint, outcome), tags -> Timer.builder("openai.request")
+                            .tag("type", tags.type())
+                            .tag("endpoint", tags.endpoint())
+                            .tag("outcome", tags.outcome())
+                            .publishPercentileHistogram()
+                            .maximumExpectedValue(Duration.ofSeconds(60))
+                            .register(meterRegistry))
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = type;
+                event.endpoint = endpoint;
+                event.outcome = outcome;
+                event.chunks = chunks;
+                event.commit();
+            }
+        }
+    }
+
+    private record RequestTags(String type, String endpoint, String outcome) {
+    }
+
+    private static String outcome(Throwable error) {
+        return error instanceof UpstreamException ue ? tagValue(ue.getErrorCode()) : "error";
+    }
+
+    private static String tagValue(ErrorCode code) {
+        return code.name().toLowerCase().replace('_', '-');
+    }
+}
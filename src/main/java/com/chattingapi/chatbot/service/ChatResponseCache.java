@@ -0,0 +1,81 @@
+package com.chattingapi.chatbot.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ChatResponseCache {
+
+    private final Cache<String, String> cache;
+    private final boolean enabled;
+
+    public ChatResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.response-cache.enabled:false}") boolean enabled,
+            @Value("${app.response-cache.max-bytes:16777216}") long maxBytes,
+            @Value("${app.response-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.enabled = enabled;
+        // 문자열은 char 당 최대 2바이트로 어림잡아 메모리 상한을 둠
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(Math.max(1, maxBytes))
+                .weigher((String key, String content) -> (key.length() + content.length()) * 2)
+                .expireAfterWrite(Duration.ofSeconds(Math.max(1, ttlSeconds)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "chat.response");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, String content) {
+        if (content != null && !content.isBlank()) {
+            cache.put(key, content);
+        }
+    }
+
+    public void clearAll() {
+        cache.invalidateAll();
+    }
+
+    // 각 필드 앞에 길이를 붙여 ("ab","c") 와 ("a","bc") 가 같은 키가 되지 않도록 함
+    public static String key(String model, double temperature, List<Map<String, String>> messages) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, model);
+            update(digest, Double.toString(temperature));
+            for (Map<String, String> message : messages) {
+                update(digest, message.get("role"));
+                update(digest, message.get("content"));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+}
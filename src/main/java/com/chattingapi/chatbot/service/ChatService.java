@@ -2,6 +2,7 @@ package com.chattingapi.chatbot.service;
 
 import com.chattingapi.chatbot.dto.ChatRequest;
 import com.chattingapi.chatbot.dto.ConversationDto;
+import com.chattingapi.chatbot.dto.CursorPage;
 import com.chattingapi.chatbot.dto.MessageDto;
 import com.chattingapi.chatbot.dto.PageResult;
 import com.chattingapi.chatbot.entity.Conversation;
@@ -14,16 +15,21 @@ import com.chattingapi.chatbot.repository.MessageRepository;
 import com.chattingapi.chatbot.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 @RequiredArgsConstructor
@@ -36,70 +42,41 @@ public class ChatService {
     private final ApiKeyHasher apiKeyHasher;
     private final TransactionTemplate transactionTemplate;
     private final RateLimitService rateLimitService;
+    private final Scheduler blockingTaskScheduler;
+    private final SseTokenCoalescer sseTokenCoalescer;
+    private final ApiKeyAuthCache apiKeyAuthCache;
+    private final ConversationContextCache conversationContextCache;
+    private final ContextAssembler contextAssembler;
+    private final ConversationSummaryService conversationSummaryService;
+    private final UpstreamScheduler upstreamScheduler;
+    private final TokenCounter tokenCounter;
+    private final ChatMetrics chatMetrics;
 
-    public MessageDto processChat(String apiKey, ChatRequest request) {
-        enforceRateLimit(apiKey);
-        User user = findUserByApiKey(apiKey);
-
-        Long conversationId = Objects.requireNonNull(transactionTemplate.execute(status -> {
-            Conversation conversation;
-            if (request.getConversationId() != null) {
-                conversation = conversationRepository.findByIdAndUserId(request.getConversationId(), user.getId())
-                        .orElseThrow(() -> new NotFoundException("Conversation not found"));
-            } else {
-                String title = makeTitle(request.getMessage());
-                conversation = conversationRepository.save(Conversation.create(user, title));
-            }
-            messageRepository.save(Message.of(conversation, "user", request.getMessage()));
-            return conversation.getId();
-        }));
-
-        List<Message> context = Objects.requireNonNull(transactionTemplate.execute(status -> {
-            List<Message> ctx = messageRepository
-                    .findTop10ByConversationIdAndConversationUserIdOrderByCreatedAtDesc(conversationId, user.getId());
-            Collections.reverse(ctx);
-            return ctx;
-        }));
-
-        String ai = openAIService.chat(context);
-
-        Message saved = Objects.requireNonNull(transactionTemplate.execute(status -> {
-            Conversation conversation = conversationRepository.findByIdAndUserId(conversationId, user.getId())
-                    .orElseThrow(() -> new NotFoundException("Conversation not found"));
-            return messageRepository.save(Message.of(conversation, "assistant", ai));
-        }));
-
-        return MessageDto.fromEntity(saved);
+    public Mono<MessageDto> processChat(String apiKey, ChatRequest request, boolean bypassCache) {
+        return prepare(apiKey, request)
+                .flatMap(prepared -> upstreamScheduler.schedule(prepared.userId(), promptTokens(prepared.context()),
+                                () -> openAIService.chat(prepared.context(), bypassCache))
+                        .publishOn(blockingTaskScheduler)
+                        .map(ai -> MessageDto.fromEntity(saveAssistantMessage(prepared.conversationId(), prepared.userId(), ai))));
     }
 
-    public SseEmitter processChatStream(String apiKey, ChatRequest request) {
+    public SseEmitter processChatStream(String apiKey, ChatRequest request, boolean bypassCache) {
+        // 인증/요청 한도는 인증 캐시 덕분에 가벼우므로 응답 커밋 전에 동기로 검사해 401/429 상태를 유지
         enforceRateLimit(apiKey);
-        User user = findUserByApiKey(apiKey);
-
-        Long conversationId = Objects.requireNonNull(transactionTemplate.execute(status -> {
-            Conversation conversation;
-            if (request.getConversationId() != null) {
-                conversation = conversationRepository.findByIdAndUserId(request.getConversationId(), user.getId())
-                        .orElseThrow(() -> new NotFoundException("Conversation not found"));
-            } else {
-                String title = makeTitle(request.getMessage());
-                conversation = conversationRepository.save(Conversation.create(user, title));
-            }
-            messageRepository.save(Message.of(conversation, "user", request.getMessage()));
-            return conversation.getId();
-        }));
-
-        List<Message> context = Objects.requireNonNull(transactionTemplate.execute(status -> {
-            List<Message> ctx = messageRepository
-                    .findTop10ByConversationIdAndConversationUserIdOrderByCreatedAtDesc(conversationId, user.getId());
-            Collections.reverse(ctx);
-            return ctx;
-        }));
+        Long userId = authenticate(apiKey);
 
         SseEmitter emitter = new SseEmitter(0L);
+        Runnable streamClosed = chatMetrics.streamOpened();
+        AtomicReference<Prepared> started = new AtomicReference<>();
         StringBuilder assistant = new StringBuilder();
 
-        Disposable disposable = openAIService.chatStream(context)
+        Disposable disposable = prepare(userId, request)
+                .flatMapMany(prepared -> {
+                    started.set(prepared);
+                    return sseTokenCoalescer.coalesce(upstreamScheduler.scheduleStream(
+                            prepared.userId(), promptTokens(prepared.context()), () -> openAIService.chatStream(prepared.context(), bypassCache)));
+                })
+                .publishOn(blockingTaskScheduler)
                 .subscribe(
                         token -> {
                             assistant.append(token);
@@ -110,20 +87,28 @@ public class ChatService {
                             emitter.complete();
                         },
                         () -> {
+                            Prepared prepared = started.get();
                             if (!assistant.isEmpty()) {
-                                saveAssistantMessage(conversationId, user.getId(), assistant.toString());
+                                saveAssistantMessage(prepared.conversationId(), prepared.userId(), assistant.toString());
                             }
                             sendEvent(emitter, "done", "[DONE]");
                             emitter.complete();
                         }
                 );
 
-        emitter.onCompletion(disposable::dispose);
+        emitter.onCompletion(() -> {
+            disposable.dispose();
+            streamClosed.run();
+        });
         emitter.onTimeout(() -> {
             disposable.dispose();
+            streamClosed.run();
             emitter.complete();
         });
-        emitter.onError(ignored -> disposable.dispose());
+        emitter.onError(ignored -> {
+            disposable.dispose();
+            streamClosed.run();
+        });
 
         return emitter;
     }
@@ -131,17 +116,33 @@ public class ChatService {
     @Transactional(readOnly = true)
     public PageResult<ConversationDto> getConversations(String apiKey, int page, int size) {
         enforceRateLimit(apiKey);
-        User user = findUserByApiKey(apiKey);
-        var result = conversationRepository.findByUserIdOrderByUpdatedAtDesc(user.getId(), PageRequest.of(page, size))
+        Long userId = authenticate(apiKey);
+        var result = conversationRepository.findByUserIdOrderByUpdatedAtDesc(userId, PageRequest.of(page, size))
                 .map(ConversationDto::fromEntity);
         return PageResult.from(result);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<ConversationDto> scrollConversations(String apiKey, String after, int size) {
+        enforceRateLimit(apiKey);
+        Long userId = authenticate(apiKey);
+        Limit limit = Limit.of(size + 1);
+        List<Conversation> rows;
+        if (after == null || after.isBlank()) {
+            rows = conversationRepository.findByUserIdOrderByUpdatedAtDescIdDesc(userId, limit);
+        } else {
+            PageCursor cursor = PageCursor.decode(after);
+            rows = conversationRepository.findPageAfter(userId, cursor.timestamp(), cursor.id(), limit);
+        }
+        return CursorPage.from(rows, size, ConversationDto::fromEntity,
+                last -> new PageCursor(last.getUpdatedAt(), last.getId()).encode());
+    }
+
     @Transactional(readOnly = true)
     public ConversationDto getConversation(String apiKey, Long conversationId) {
         enforceRateLimit(apiKey);
-        User user = findUserByApiKey(apiKey);
-        Conversation conversation = conversationRepository.findByIdAndUserId(conversationId, user.getId())
+        Long userId = authenticate(apiKey);
+        Conversation conversation = conversationRepository.findByIdAndUserId(conversationId, userId)
                 .orElseThrow(() -> new NotFoundException("Conversation not found"));
         return ConversationDto.fromEntity(conversation);
     }
@@ -149,27 +150,71 @@ public class ChatService {
     @Transactional(readOnly = true)
     public PageResult<MessageDto> getMessages(String apiKey, Long conversationId, int page, int size) {
         enforceRateLimit(apiKey);
-        User user = findUserByApiKey(apiKey);
+        Long userId = authenticate(apiKey);
         var result = messageRepository
-                .findByConversationIdAndConversationUserIdOrderByCreatedAtAsc(conversationId, user.getId(), PageRequest.of(page, size))
+                .findByConversationIdAndConversationUserIdOrderByCreatedAtAsc(conversationId, userId, PageRequest.of(page, size))
                 .map(MessageDto::fromEntity);
         return PageResult.from(result);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<MessageDto> scrollMessages(String apiKey, Long conversationId, String after, int size) {
+        enforceRateLimit(apiKey);
+        Long userId = authenticate(apiKey);
+        Limit limit = Limit.of(size + 1);
+        List<Message> rows;
+        if (after == null || after.isBlank()) {
+            rows = messageRepository.findByConversationIdAndConversationUserIdOrderByCreatedAtAscIdAsc(conversationId, userId, limit);
+        } else {
+            PageCursor cursor = PageCursor.decode(after);
+            rows = messageRepository.findPageAfter(conversationId, userId, cursor.timestamp(), cursor.id(), limit);
+        }
+        return CursorPage.from(rows, size, MessageDto::fromEntity,
+                last -> new PageCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
     @Transactional
     public void deleteConversation(String apiKey, Long conversationId) {
         enforceRateLimit(apiKey);
-        User user = findUserByApiKey(apiKey);
-        Conversation conversation = conversationRepository.findByIdAndUserId(conversationId, user.getId())
+        Long userId = authenticate(apiKey);
+        Conversation conversation = conversationRepository.findByIdAndUserId(conversationId, userId)
                 .orElseThrow(() -> new NotFoundException("Conversation not found"));
         conversationRepository.delete(conversation);
+        conversationContextCache.evict(conversationId);
+        conversationSummaryService.evict(conversationId);
+    }
+
+    // 업스트림 호출 전 블로킹 단계(요청 한도, 인증, 사용자 메시지 저장, 문맥 조회)를 서블릿 스레드 밖에서 실행
+    private Mono<Prepared> prepare(String apiKey, ChatRequest request) {
+        return Mono.fromCallable(() -> {
+                    enforceRateLimit(apiKey);
+                    return persist(authenticate(apiKey), request);
+                })
+                .subscribeOn(blockingTaskScheduler);
+    }
+
+    // 스트림은 인증을 먼저 끝내고 저장/문맥 조회만 미룸
+    private Mono<Prepared> prepare(Long userId, ChatRequest request) {
+        return Mono.fromCallable(() -> persist(userId, request))
+                .subscribeOn(blockingTaskScheduler);
+    }
+
+    private Prepared persist(Long userId, ChatRequest request) {
+        Long conversationId = saveUserMessage(userId, request);
+        return new Prepared(userId, conversationId, loadContext(conversationId, userId));
     }
 
-    private User findUserByApiKey(String apiKey) {
+    private Long authenticate(String apiKey) {
         String hashedApiKey = apiKeyHasher.hash(apiKey);
-        return userRepository.findByApiKey(hashedApiKey)
-                .or(() -> userRepository.findByApiKey(apiKey))
-                .orElseThrow(() -> new UnauthorizedException("Invalid API key"));
+        Long userId = apiKeyAuthCache.resolveUserId(hashedApiKey, () -> chatMetrics.authLookup().record(
+                () -> userRepository.findByApiKey(hashedApiKey)
+                        .or(() -> userRepository.findByApiKey(apiKey))
+                        .map(User::getId)
+                        .orElse(null)));
+        if (userId == null) {
+            throw new UnauthorizedException("Invalid API key");
+        }
+        return userId;
     }
 
     private String makeTitle(String message) {
@@ -181,23 +226,94 @@ public class ChatService {
         rateLimitService.checkOrThrow(apiKey);
     }
 
-    private void saveAssistantMessage(Long conversationId, Long userId, String content) {
-        transactionTemplate.executeWithoutResult(status -> {
+    private Long saveUserMessage(Long userId, ChatRequest request) {
+        SavedMessage saved = Objects.requireNonNull(chatMetrics.db("save-user-message", () -> transactionTemplate.execute(status -> {
+            if (request.getConversationId() != null) {
+                Conversation conversation = conversationRepository.findByIdAndUserId(request.getConversationId(), userId)
+                        .orElseThrow(() -> new NotFoundException("Conversation not found"));
+                Long previousId = latestMessageId(conversation.getId());
+                return new SavedMessage(messageRepository.save(Message.of(conversation, "user", request.getMessage())), previousId);
+            }
+            String title = makeTitle(request.getMessage());
+            Conversation conversation = conversationRepository.save(Conversation.create(userRepository.getReferenceById(userId), title));
+            return new SavedMessage(messageRepository.save(Message.of(conversation, "user", request.getMessage())), null);
+        })));
+        Long conversationId = saved.message().getConversation().getId();
+        conversationContextCache.append(conversationId, saved.previousId(), saved.message());
+        return conversationId;
+    }
+
+    // 다른 인스턴스가 쓴 메시지를 캐시가 놓쳤는지 확인하는 기준 (저장 직전의 마지막 메시지)
+    private Long latestMessageId(Long conversationId) {
+        List<Long> ids = messageRepository.findLatestIds(conversationId, Limit.of(1));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private List<Message> loadContext(Long conversationId, Long userId) {
+        List<Message> history = conversationContextCache.getOrLoad(conversationId, () -> Objects.requireNonNull(chatMetrics.db("load-context", () -> transactionTemplate.execute(status -> {
+            List<Message> ctx = new ArrayList<>(messageRepository.findByConversationIdAndConversationUserIdOrderByCreatedAtDesc(
+                    conversationId,
+                    userId,
+                    Limit.of(conversationContextCache.windowSize())
+            ));
+            Collections.reverse(ctx);
+            return ctx;
+        }))));
+        ConversationSummaryService.Summary summary = conversationSummaryService.find(conversationId);
+        if (summary == null) {
+            return contextAssembler.assemble(history);
+        }
+        return contextAssembler.assemble(summary.toMessage(), summary.uncovered(history));
+    }
+
+    // 공정 큐에서 요청 비용으로 사용
+    private int promptTokens(List<Message> context) {
+        int tokens = 0;
+        for (Message message : context) {
+            tokens += tokenCounter.count(message);
+        }
+        return tokens;
+    }
+
+    private Message saveAssistantMessage(Long conversationId, Long userId, String content) {
+        SavedMessage saved = Objects.requireNonNull(chatMetrics.db("save-assistant-message", () -> transactionTemplate.execute(status -> {
             Conversation conversation = conversationRepository.findByIdAndUserId(conversationId, userId)
                     .orElseThrow(() -> new NotFoundException("Conversation not found"));
-            messageRepository.save(Message.of(conversation, "assistant", content));
-        });
+            Long previousId = latestMessageId(conversationId);
+            return new SavedMessage(messageRepository.save(Message.of(conversation, "assistant", content)), previousId);
+        })));
+        conversationContextCache.append(conversationId, saved.previousId(), saved.message());
+        conversationSummaryService.scheduleCompaction(conversationId);
+        return saved.message();
     }
 
     private void sendEvent(SseEmitter emitter, String name, String data) {
+        SseSendEvent event = new SseSendEvent();
+        event.begin();
+        boolean success = false;
         try {
             emitter.send(
                     SseEmitter.event()
                             .name(name)
                             .data(data, MediaType.TEXT_PLAIN)
             );
+            success = true;
         } catch (Exception ignored) {
             emitter.complete();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.eventName = name;
+                event.length = data.length();
+                event.success = success;
+                event.commit();
+            }
         }
     }
+
+    private record Prepared(Long userId, Long conversationId, List<Message> context) {
+    }
+
+    private record SavedMessage(Message message, Long previousId) {
+    }
 }
@@ -0,0 +1,45 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ContextAssembler {
+
+    private final TokenCounter tokenCounter;
+
+    @Value("${app.context.max-tokens:3000}")
+    private int maxTokens;
+
+    public List<Message> assemble(List<Message> history) {
+        return assemble(null, history);
+    }
+
+    // 오래된 순서로 정렬된 메시지에서 최신 메시지부터 예산이 찰 때까지 채움
+    // 가장 최근 메시지(현재 질문)는 예산을 넘어도 항상 포함. pinned(요약)는 맨 앞에 고정
+    public List<Message> assemble(Message pinned, List<Message> history) {
+        int used = pinned == null ? 0 : tokenCounter.count(pinned);
+        int from = history.size();
+        while (from > 0) {
+            int tokens = tokenCounter.count(history.get(from - 1));
+            if (from < history.size() && used + tokens > maxTokens) {
+                break;
+            }
+            used += tokens;
+            from--;
+        }
+        if (pinned == null) {
+            return history.subList(from, history.size());
+        }
+        List<Message> context = new ArrayList<>(history.size() - from + 1);
+        context.add(pinned);
+        context.addAll(history.subList(from, history.size()));
+        return context;
+    }
+}
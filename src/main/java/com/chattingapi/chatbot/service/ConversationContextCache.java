@@ -0,0 +1,113 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+@Component
+public class ConversationContextCache {
+
+    private final Cache<Long, ContextWindow> windows;
+    private final int windowSize;
+
+    public ConversationContextCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.context-cache.max-conversations:10000}") long maxConversations,
+            @Value("${app.context-cache.idle-seconds:600}") long idleSeconds,
+            @Value("${app.context-cache.window-size:50}") int windowSize
+    ) {
+        this.windowSize = Math.max(1, windowSize);
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxConversations))
+                .expireAfterAccess(Duration.ofSeconds(Math.max(1, idleSeconds)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, windows, "chat.context");
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    // loader 는 오래된 순서로 정렬된 최근 메시지를 반환해야 함
+    public List<Message> getOrLoad(Long conversationId, Supplier<List<Message>> loader) {
+        return windows.get(conversationId, ignored -> {
+            ContextWindow window = new ContextWindow(windowSize);
+            for (Message message : loader.get()) {
+                window.append(message);
+            }
+            return window;
+        }).snapshot();
+    }
+
+    // 캐시에 있는 대화에만 반영. 로딩 중이면 로딩이 끝난 뒤 반영됨
+    // expectedLatestId 는 저장 직전 DB 의 마지막 메시지 id. 캐시의 마지막 메시지와 다르면
+    // 다른 인스턴스가 쓴 메시지를 놓친 것이므로 무효화하고 다음 조회에서 DB 로 다시 채움
+    public void append(Long conversationId, Long expectedLatestId, Message message) {
+        windows.asMap().computeIfPresent(conversationId, (id, window) -> window.appendIfLatest(expectedLatestId, message) ? window : null);
+    }
+
+    public void evict(Long conversationId) {
+        windows.invalidate(conversationId);
+    }
+
+    public void clearAll() {
+        windows.invalidateAll();
+    }
+
+    private static final class ContextWindow {
+
+        private final Message[] slots;
+        private int start;
+        private int size;
+
+        ContextWindow(int capacity) {
+            this.slots = new Message[capacity];
+        }
+
+        synchronized void append(Message message) {
+            for (int i = 0; i < size; i++) {
+                Message existing = slots[(start + i) % slots.length];
+                if (message.getId() != null && Objects.equals(existing.getId(), message.getId())) {
+                    return;
+                }
+            }
+            slots[(start + size) % slots.length] = message;
+            if (size < slots.length) {
+                size++;
+            } else {
+                start = (start + 1) % slots.length;
+            }
+        }
+
+        synchronized boolean appendIfLatest(Long expectedLatestId, Message message) {
+            Long latestId = size == 0 ? null : slots[(start + size - 1) % slots.length].getId();
+            if (latestId != null && Objects.equals(latestId, message.getId())) {
+                return true;
+            }
+            if (!Objects.equals(latestId, expectedLatestId)) {
+                return false;
+            }
+            append(message);
+            return true;
+        }
+
+        synchronized List<Message> snapshot() {
+            List<Message> messages = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                messages.add(slots[(start + i) % slots.length]);
+            }
+            return messages;
+        }
+    }
+}
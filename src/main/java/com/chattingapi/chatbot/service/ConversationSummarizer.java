@@ -0,0 +1,12 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ConversationSummarizer {
+
+    // previousSummary 는 없으면 null. messages 는 오래된 순서
+    Mono<String> summarize(String previousSummary, List<Message> messages);
+}
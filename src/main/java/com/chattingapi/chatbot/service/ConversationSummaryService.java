@@ -0,0 +1,172 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.ConversationSummary;
+import com.chattingapi.chatbot.entity.Message;
+import com.chattingapi.chatbot.repository.ConversationSummaryRepository;
+import com.chattingapi.chatbot.repository.MessageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class ConversationSummaryService {
+
+    static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    private final ConversationSummaryRepository summaryRepository;
+    private final MessageRepository messageRepository;
+    private final ConversationSummarizer summarizer;
+    private final TransactionTemplate transactionTemplate;
+    private final Scheduler blockingTaskScheduler;
+    private final Cache<Long, Optional<Summary>> summaries;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.summary.enabled:true}")
+    private boolean enabled;
+
+    // 요약되지 않은 메시지가 이 수를 넘으면 압축
+    @Value("${app.summary.trigger-messages:30}")
+    private int triggerMessages;
+
+    // 최근 메시지는 원문 그대로 남김
+    @Value("${app.summary.keep-recent:10}")
+    private int keepRecent;
+
+    @Value("${app.summary.max-batch:200}")
+    private int maxBatch;
+
+    public ConversationSummaryService(
+            ConversationSummaryRepository summaryRepository,
+            MessageRepository messageRepository,
+            ConversationSummarizer summarizer,
+            TransactionTemplate transactionTemplate,
+            Scheduler blockingTaskScheduler,
+            @Value("${app.context-cache.max-conversations:10000}") long maxConversations,
+            @Value("${app.context-cache.idle-seconds:600}") long idleSeconds
+    ) {
+        this.summaryRepository = summaryRepository;
+        this.messageRepository = messageRepository;
+        this.summarizer = summarizer;
+        this.transactionTemplate = transactionTemplate;
+        this.blockingTaskScheduler = blockingTaskScheduler;
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxConversations))
+                .expireAfterAccess(Duration.ofSeconds(Math.max(1, idleSeconds)))
+                .build();
+    }
+
+    public Summary find(Long conversationId) {
+        if (!enabled) {
+            return null;
+        }
+        return summaries.get(conversationId, id -> summaryRepository.findByConversationId(id).map(Summary::of))
+                .orElse(null);
+    }
+
+    public void evict(Long conversationId) {
+        summaries.invalidate(conversationId);
+    }
+
+    // 요청 경로와 분리해서 백그라운드로 실행
+    public void scheduleCompaction(Long conversationId) {
+        if (!enabled || !running.add(conversationId)) {
+            return;
+        }
+        compact(conversationId)
+                .doFinally(signal -> running.remove(conversationId))
+                .subscribe(
+                        written -> {
+                            if (written) {
+                                log.info("Conversation summarized conversationId={}", conversationId);
+                            }
+                        },
+                        e -> log.warn("Conversation summary failed conversationId={} reason={}", conversationId, e.getMessage())
+                );
+    }
+
+    public Mono<Boolean> compact(Long conversationId) {
+        return Mono.fromCallable(() -> loadBatch(conversationId))
+                .subscribeOn(blockingTaskScheduler)
+                .flatMap(batch -> summarizer.summarize(batch.previous(), batch.messages())
+                        .publishOn(blockingTaskScheduler)
+                        .map(content -> {
+                            save(conversationId, content, batch.messages().get(batch.messages().size() - 1));
+                            return true;
+                        }))
+                .defaultIfEmpty(false);
+    }
+
+    private Batch loadBatch(Long conversationId) {
+        return transactionTemplate.execute(status -> {
+            Optional<ConversationSummary> existing = summaryRepository.findByConversationId(conversationId);
+            long pending = existing
+                    .map(s -> messageRepository.countAfter(conversationId, s.getCoveredUntil(), s.getCoveredMessageId()))
+                    .orElseGet(() -> messageRepository.countByConversationId(conversationId));
+            long fold = Math.min(maxBatch, pending - keepRecent);
+            if (pending <= triggerMessages || fold <= 0) {
+                return null;
+            }
+            Limit limit = Limit.of((int) fold);
+            List<Message> messages = existing
+                    .map(s -> messageRepository.findAfter(conversationId, s.getCoveredUntil(), s.getCoveredMessageId(), limit))
+                    .orElseGet(() -> messageRepository.findByConversationIdOrderByCreatedAtAscIdAsc(conversationId, limit));
+            if (messages.isEmpty()) {
+                return null;
+            }
+            return new Batch(existing.map(ConversationSummary::getContent).orElse(null), messages);
+        });
+    }
+
+    private void save(Long conversationId, String content, Message coveredUntil) {
+        ConversationSummary saved = transactionTemplate.execute(status -> {
+            ConversationSummary summary = summaryRepository.findByConversationId(conversationId)
+                    .orElseGet(() -> ConversationSummary.create(conversationId));
+            summary.update(content.strip(), coveredUntil);
+            return summaryRepository.save(summary);
+        });
+        if (saved != null) {
+            summaries.put(conversationId, Optional.of(Summary.of(saved)));
+        }
+    }
+
+    private record Batch(String previous, List<Message> messages) {
+    }
+
+    public record Summary(String content, OffsetDateTime coveredUntil, Long coveredMessageId) {
+
+        static Summary of(ConversationSummary entity) {
+            return new Summary(entity.getContent(), entity.getCoveredUntil(), entity.getCoveredMessageId());
+        }
+
+        public Message toMessage() {
+            return Message.of(null, "system", SUMMARY_PREFIX + content);
+        }
+
+        // DB 는 마이크로초까지 저장하므로 메모리의 값과 비교할 때 맞춰서 비교
+        public List<Message> uncovered(List<Message> history) {
+            Instant covered = coveredUntil.toInstant().truncatedTo(ChronoUnit.MICROS);
+            return history.stream()
+                    .filter(m -> {
+                        int cmp = m.getCreatedAt().toInstant().truncatedTo(ChronoUnit.MICROS).compareTo(covered);
+                        return cmp > 0 || (cmp == 0 && m.getId() > coveredMessageId);
+                    })
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.chattingapi.chatbot.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// ChatService 의 트랜잭션 단위 (chat.db 지표와 같은 구간)
+@Name("chatbot.DbPhase")
+@Label("DB Phase")
+@Category({"Chatbot", "Database"})
+class DbPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,116 @@
+package com.chattingapi.chatbot.service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// 사용자별 가상 큐 + deficit round robin. 차례가 온 사용자는 quantum 만큼 비용(프롬프트 토큰)을 쓸 수 있음
+public class FairQueue<T> {
+
+    public enum Offer { ACCEPTED, USER_FULL, QUEUE_FULL }
+
+    private final int quantum;
+    private final int maxPerUser;
+    private final int maxTotal;
+
+    private final Map<Long, UserQueue<T>> queues = new HashMap<>();
+    private final ArrayDeque<UserQueue<T>> active = new ArrayDeque<>();
+    private int size;
+
+    public FairQueue(int quantum, int maxPerUser, int maxTotal) {
+        this.quantum = Math.max(1, quantum);
+        this.maxPerUser = Math.max(1, maxPerUser);
+        this.maxTotal = Math.max(1, maxTotal);
+    }
+
+    public synchronized Offer offer(Long userId, int cost, T item) {
+        if (size >= maxTotal) {
+            return Offer.QUEUE_FULL;
+        }
+        UserQueue<T> queue = queues.get(userId);
+        if (queue == null) {
+            queue = new UserQueue<>(userId);
+            queues.put(userId, queue);
+            active.addLast(queue);
+        } else if (queue.entries.size() >= maxPerUser) {
+            return Offer.USER_FULL;
+        }
+        queue.entries.addLast(new Entry<>(Math.max(1, cost), item));
+        size++;
+        return Offer.ACCEPTED;
+    }
+
+    // 대기 중 취소(타임아웃 등). 이미 꺼낸 항목이면 false
+    public synchronized boolean remove(Long userId, T item) {
+        UserQueue<T> queue = queues.get(userId);
+        if (queue == null) {
+            return false;
+        }
+        for (Iterator<Entry<T>> it = queue.entries.iterator(); it.hasNext(); ) {
+            if (it.next().item() == item) {
+                it.remove();
+                size--;
+                if (queue.entries.isEmpty()) {
+                    deactivate(queue);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized T poll() {
+        while (!active.isEmpty()) {
+            UserQueue<T> queue = active.peekFirst();
+            if (!queue.inTurn) {
+                queue.deficit += quantum;
+                queue.inTurn = true;
+            }
+            Entry<T> head = queue.entries.peekFirst();
+            if (queue.deficit < head.cost()) {
+                // 이번 차례 몫을 다 씀. 남은 deficit 은 다음 차례로 이월
+                queue.inTurn = false;
+                active.addLast(active.pollFirst());
+                continue;
+            }
+            queue.deficit -= head.cost();
+            queue.entries.pollFirst();
+            size--;
+            if (queue.entries.isEmpty()) {
+                deactivate(queue);
+            }
+            return head.item();
+        }
+        return null;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int activeUsers() {
+        return active.size();
+    }
+
+    // 비어 있는 동안 deficit 을 쌓아 두지 않도록 큐 자체를 버림
+    private void deactivate(UserQueue<T> queue) {
+        active.remove(queue);
+        queues.remove(queue.userId);
+    }
+
+    private record Entry<T>(int cost, T item) {
+    }
+
+    private static final class UserQueue<T> {
+
+        private final Long userId;
+        private final ArrayDeque<Entry<T>> entries = new ArrayDeque<>();
+        private long deficit;
+        private boolean inTurn;
+
+        UserQueue(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
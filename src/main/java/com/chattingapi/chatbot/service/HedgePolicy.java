@@ -0,0 +1,136 @@
+package com.chattingapi.chatbot.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// 응답이 최근 지연 분포의 percentile 보다 늦으면 같은 요청을 한 번 더 보내고 먼저 온 응답을 사용
+@Component
+public class HedgePolicy {
+
+    private static final int SAMPLE_SIZE = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+    private static final double MAX_BUDGET = 10.0;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final long initialDelayMillis;
+    private final int minSamples;
+    private final double maxRatio;
+    private final Counter sent;
+    private final Counter won;
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private int sampleIndex;
+    private long cachedDelayMillis;
+    private double budget;
+
+    public HedgePolicy(
+            MeterRegistry meterRegistry,
+            @Value("${openai.hedge.enabled:false}") boolean enabled,
+            @Value("${openai.hedge.percentile:0.95}") double percentile,
+            @Value("${openai.hedge.min-delay-ms:500}") long minDelayMillis,
+            @Value("${openai.hedge.initial-delay-ms:5000}") long initialDelayMillis,
+            @Value("${openai.hedge.min-samples:50}") int minSamples,
+            @Value("${openai.hedge.max-ratio:0.05}") double maxRatio
+    ) {
+        this.enabled = enabled;
+        this.percentile = Math.min(0.999, Math.max(0.5, percentile));
+        this.minDelayMillis = Math.max(1, minDelayMillis);
+        this.initialDelayMillis = Math.max(this.minDelayMillis, initialDelayMillis);
+        this.minSamples = Math.max(1, Math.min(SAMPLE_SIZE, minSamples));
+        this.maxRatio = Math.max(0, maxRatio);
+        this.cachedDelayMillis = this.initialDelayMillis;
+        this.budget = 1.0;
+        this.sent = Counter.builder("openai.hedge.sent").register(meterRegistry);
+        this.won = Counter.builder("openai.hedge.won").register(meterRegistry);
+        Gauge.builder("openai.hedge.delay", this, HedgePolicy::delayMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> {
+            long startedAt = System.nanoTime();
+            addBudget();
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primaryDone = Sinks.one();
+            Mono<Attempt<T>> primary = Mono.defer(call)
+                    .map(value -> new Attempt<>(value, false))
+                    .doOnError(primaryError::set)
+                    .doFinally(signal -> primaryDone.tryEmitValue(Boolean.TRUE));
+            // 1차 요청이 헤지 전에 끝나면 헤지를 보내지 않고, 이미 보낸 헤지는 1차가 실패해도 끝까지 기다림
+            Mono<Attempt<T>> hedged = Mono.delay(Duration.ofMillis(delayMillis()))
+                    .takeUntilOther(primaryDone.asMono())
+                    .filter(tick -> tryConsumeBudget())
+                    .flatMap(tick -> {
+                        sent.increment();
+                        return Mono.defer(call).map(value -> new Attempt<>(value, true));
+                    });
+            // 먼저 도착한 값이 이김. 둘 다 값 없이 끝나면 1차 요청의 오류를 그대로 전달
+            return Mono.firstWithValue(primary, hedged)
+                    .doOnNext(attempt -> {
+                        if (attempt.hedged()) {
+                            won.increment();
+                        }
+                        record(System.nanoTime() - startedAt);
+                    })
+                    .map(Attempt::value)
+                    .onErrorResume(e -> {
+                        Throwable failure = primaryError.get();
+                        if (failure != null) {
+                            return Mono.error(failure);
+                        }
+                        return e instanceof NoSuchElementException ? Mono.empty() : Mono.error(e);
+                    });
+        });
+    }
+
+    synchronized long delayMillis() {
+        return cachedDelayMillis;
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[sampleIndex] = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        sampleIndex = (sampleIndex + 1) % SAMPLE_SIZE;
+        sampleCount = Math.min(SAMPLE_SIZE, sampleCount + 1);
+        if (sampleCount >= minSamples && sampleIndex % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+            cachedDelayMillis = Math.max(minDelayMillis, sorted[Math.max(0, rank)]);
+        }
+    }
+
+    // 요청마다 maxRatio 만큼 예산이 쌓이고 헤지 1회에 1을 씀 (전체 요청 대비 헤지 비율 상한)
+    private synchronized void addBudget() {
+        budget = Math.min(MAX_BUDGET, budget + maxRatio);
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        if (budget < 1.0) {
+            return false;
+        }
+        budget -= 1.0;
+        return true;
+    }
+
+    private record Attempt<T>(T value, boolean hedged) {
+    }
+}
@@ -0,0 +1,107 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.dto.JfrRecordingStatus;
+import com.chattingapi.chatbot.exception.BadRequestException;
+import com.chattingapi.chatbot.exception.NotFoundException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Set;
+
+// 관리자 API 로 여는 JFR 녹화는 한 번에 하나만. max-seconds 가 지나면 JVM 이 자동으로 멈춤
+@Service
+@Slf4j
+public class JfrRecordingService {
+
+    private static final String RECORDING_NAME = "chatbot-admin";
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    @Value("${app.jfr.max-seconds:900}")
+    private long maxSecondsLimit;
+
+    @Value("${app.jfr.max-size-mb:256}")
+    private long maxSizeMb;
+
+    private Recording recording;
+    private String settings;
+
+    public synchronized JfrRecordingStatus start(String settingsName, long maxSeconds) {
+        if (!SETTINGS.contains(settingsName)) {
+            throw new BadRequestException("settings must be one of " + SETTINGS);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new BadRequestException("Recording already running");
+        }
+        closeQuietly();
+
+        long seconds = Math.min(Math.max(1, maxSeconds), Math.max(1, maxSecondsLimit));
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settingsName));
+            started.setName(RECORDING_NAME);
+            started.setToDisk(true);
+            started.setDuration(Duration.ofSeconds(seconds));
+            started.setMaxSize(Math.max(1, maxSizeMb) * 1024 * 1024);
+            started.start();
+            recording = started;
+            settings = settingsName;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR configuration unavailable: " + settingsName, e);
+        }
+        log.info("JFR recording started settings={} maxSeconds={}", settingsName, seconds);
+        return status();
+    }
+
+    public synchronized JfrRecordingStatus status() {
+        if (recording == null) {
+            throw new NotFoundException("No recording");
+        }
+        return new JfrRecordingStatus(
+                recording.getName(),
+                recording.getState().name(),
+                settings,
+                recording.getStartTime(),
+                recording.getDuration() == null ? 0 : recording.getDuration().toSeconds()
+        );
+    }
+
+    // 녹화는 계속 진행. 호출한 쪽에서 다 읽은 뒤 파일을 지워야 함
+    public synchronized Path dump() {
+        if (recording == null || recording.getState() == RecordingState.CLOSED) {
+            throw new NotFoundException("No recording");
+        }
+        try {
+            Path file = Files.createTempFile("chatbot-", ".jfr");
+            recording.dump(file);
+            log.info("JFR recording dumped state={} bytes={}", recording.getState(), Files.size(file));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void stop() {
+        if (recording == null) {
+            throw new NotFoundException("No recording");
+        }
+        closeQuietly();
+        log.info("JFR recording stopped");
+    }
+
+    private void closeQuietly() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            settings = null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.chattingapi.chatbot.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LocalRateLimiter {
+
+    // 카운트를 16비트씩 묶어 두므로 윈도우당 허용 수 상한
+    static final int MAX_PERMITS = 0xFFFF;
+
+    private final Cache<String, AtomicLong> windows;
+    private final long windowMillis;
+    private final int permitsPerWindow;
+
+    public LocalRateLimiter(int permitsPerWindow, Duration window, long maxTrackedKeys) {
+        if (permitsPerWindow > MAX_PERMITS) {
+            throw new IllegalArgumentException(
+                    "app.rate-limit.requests-per-window must be <= " + MAX_PERMITS + " but was " + permitsPerWindow);
+        }
+        this.windowMillis = Math.max(1, window.toMillis());
+        this.permitsPerWindow = Math.max(1, permitsPerWindow);
+        // 직전 윈도우 카운트가 필요하므로 2 윈도우 동안 접근이 없으면 제거
+        this.windows = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxTrackedKeys))
+                .expireAfterAccess(Duration.ofMillis(windowMillis * 2))
+                .build();
+    }
+
+    // state = [window index:32][previous count:16][current count:16]
+    public boolean tryAcquire(String key, long nowMillis) {
+        AtomicLong state = windows.get(key, ignored -> new AtomicLong());
+        long windowIndex = nowMillis / windowMillis;
+        long elapsed = nowMillis - windowIndex * windowMillis;
+
+        while (true) {
+            long current = state.get();
+            long storedIndex = current >>> 32;
+            long previousCount;
+            long currentCount;
+            if (storedIndex == (windowIndex & 0xFFFFFFFFL)) {
+                previousCount = (current >>> 16) & 0xFFFF;
+                currentCount = current & 0xFFFF;
+            } else if (storedIndex == ((windowIndex - 1) & 0xFFFFFFFFL)) {
+                previousCount = current & 0xFFFF;
+                currentCount = 0;
+            } else {
+                previousCount = 0;
+                currentCount = 0;
+            }
+
+            // previous * (남은 비율) + current >= limit 이면 거절
+            long weighted = previousCount * (windowMillis - elapsed) + currentCount * windowMillis;
+            if (weighted >= (long) permitsPerWindow * windowMillis) {
+                return false;
+            }
+
+            long next = ((windowIndex & 0xFFFFFFFFL) << 32) | (previousCount << 16) | (currentCount + 1);
+            if (state.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    public long trackedKeys() {
+        return windows.estimatedSize();
+    }
+
+    public void clear() {
+        windows.invalidateAll();
+    }
+}
@@ -3,106 +3,110 @@ package com.chattingapi.chatbot.service;
 import com.chattingapi.chatbot.entity.Message;
 import com.chattingapi.chatbot.exception.ErrorCode;
 import com.chattingapi.chatbot.exception.UpstreamException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.web.reactive.function.client.WebClientRequestException;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxSink;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OpenAIService {
 
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private static final double TEMPERATURE = 0.7;
 
-    @Value("${openai.api-key}")
-    private String apiKey;
-
-    @Value("${openai.model}")
-    private String model;
+    private final UpstreamRouter upstreamRouter;
+    private final ChatResponseCache responseCache;
+    private final UpstreamSingleFlight singleFlight;
+    private final UpstreamGuard upstreamGuard;
+    private final HedgePolicy hedgePolicy;
+    private final UpstreamRetryPolicy retryPolicy;
+    private final ChatMetrics chatMetrics;
+    private final OpenAiSseDecoder sseDecoder = new OpenAiSseDecoder();
 
     @Value("${openai.timeout-seconds:30}")
     private long timeoutSeconds;
 
-    @Value("${openai.max-retries:2}")
-    private int maxRetries;
-
-    @Value("${openai.retry-delay-ms:500}")
-    private long retryDelayMs;
-
     @Value("${openai.fallback-on-rate-limited:false}")
     private boolean fallbackOnRateLimited;
 
+    @Value("${openai.fallback-on-circuit-open:false}")
+    private boolean fallbackOnCircuitOpen;
+
     @Value("${openai.fallback-message:AI response is temporarily unavailable. Please try again shortly.}")
     private String fallbackMessage;
 
-    public String chat(List<Message> contextMessages) {
-        String token = apiKey == null ? "" : apiKey.trim();
-        if (token.isBlank()) {
-            throw new UpstreamException("OpenAI API key is empty");
-        }
+    public Mono<String> chat(List<Message> contextMessages) {
+        return chat(contextMessages, false);
+    }
 
-        List<Map<String, String>> messages = new ArrayList<>();
-        messages.add(Map.of("role", "system", "content", "You are a helpful assistant."));
+    public Mono<String> chat(List<Message> contextMessages, boolean bypassCache) {
+        return request(contextMessages, bypassCache)
+                .onErrorResume(
+                        e -> e instanceof UpstreamException ue && useFallback(ue.getErrorCode()),
+                        e -> {
+                            chatMetrics.fallback(((UpstreamException) e).getErrorCode());
+                            log.warn("OpenAI unavailable; fallback response returned reason={}", e.getMessage());
+                            return Mono.just(fallbackMessage);
+                        }
+                );
+    }
 
-        for (Message m : contextMessages) {
-            messages.add(Map.of("role", m.getRole(), "content", m.getContent()));
+    private boolean useFallback(ErrorCode errorCode) {
+        return (errorCode == ErrorCode.RATE_LIMITED && fallbackOnRateLimited)
+                || (errorCode == ErrorCode.UPSTREAM_UNAVAILABLE && fallbackOnCircuitOpen);
+    }
+
+    // 요약처럼 캐시/폴백 없이 실제 응답만 필요한 내부 호출
+    public Mono<String> complete(List<Message> contextMessages) {
+        return request(contextMessages, true);
+    }
+
+    private Mono<String> request(List<Message> contextMessages, boolean bypassCache) {
+        if (!upstreamRouter.hasEndpoints()) {
+            return Mono.error(new UpstreamException("OpenAI API key is empty"));
         }
 
-        Map<String, Object> body = Map.of(
-                "model", model,
-                "messages", messages,
-                "temperature", 0.7
-        );
-
-        Map<String, Object> resp = null;
-        UpstreamException lastException = null;
-        int totalAttempts = Math.max(1, maxRetries + 1);
-        for (int attempt = 1; attempt <= totalAttempts; attempt++) {
-            try {
-                resp = requestChatCompletion(token, body);
-                break;
-            } catch (UpstreamException e) {
-                if (e.getErrorCode() == ErrorCode.RATE_LIMITED && fallbackOnRateLimited) {
-                    log.warn("OpenAI rate limited; fallback response returned");
-                    return fallbackMessage;
-                }
-                lastException = e;
-                boolean retriable = e.getErrorCode() == ErrorCode.UPSTREAM_ERROR;
-                if (!retriable || attempt == totalAttempts) {
-                    throw e;
-                }
-                log.warn("OpenAI retry attempt={}/{} reason={}", attempt, totalAttempts, e.getMessage());
-                sleepRetryDelay();
+        List<Map<String, String>> messages = buildMessages(contextMessages);
+        String requestKey = requestKey(messages);
+        boolean useCache = requestKey != null && !bypassCache && responseCache.isEnabled();
+        if (useCache) {
+            String cached = responseCache.get(requestKey);
+            if (cached != null) {
+                return Mono.just(cached);
             }
         }
 
-        if (resp == null && lastException != null) {
-            throw lastException;
-        }
+        Mono<String> upstream = hedgePolicy.hedge(() -> upstreamGuard.guard(
+                        upstreamRouter.route(endpoint -> chatMetrics.upstream(endpoint.getName(), requestChatCompletion(endpoint, messages)))))
+                .retryWhen(retryPolicy.retry("chat", () -> true))
+                .switchIfEmpty(Mono.error(() -> new UpstreamException("OpenAI API empty response")))
+                .map(OpenAIService::extractContent)
+                .doOnNext(content -> {
+                    if (useCache) {
+                        responseCache.put(requestKey, content);
+                    }
+                });
 
-        if (resp == null) {
-            throw new UpstreamException("OpenAI API empty response");
-        }
+        return requestKey == null ? upstream : singleFlight.join(requestKey, () -> upstream);
+    }
 
+    static String extractContent(Map<String, Object> resp) {
         Object choicesObj = resp.get("choices");
         if (!(choicesObj instanceof List<?> choices) || choices.isEmpty()) {
             throw new UpstreamException("OpenAI API invalid response format");
@@ -127,27 +131,41 @@ public class OpenAIService {
     }
 
     public Flux<String> chatStream(List<Message> contextMessages) {
-        String token = apiKey == null ? "" : apiKey.trim();
-        if (token.isBlank()) {
+        return chatStream(contextMessages, false);
+    }
+
+    public Flux<String> chatStream(List<Message> contextMessages, boolean bypassCache) {
+        if (!upstreamRouter.hasEndpoints()) {
             return Flux.error(new UpstreamException("OpenAI API key is empty"));
         }
 
-        List<Map<String, String>> messages = new ArrayList<>();
-        messages.add(Map.of("role", "system", "content", "You are a helpful assistant."));
-        for (Message m : contextMessages) {
-            messages.add(Map.of("role", m.getRole(), "content", m.getContent()));
+        List<Map<String, String>> messages = buildMessages(contextMessages);
+        String requestKey = requestKey(messages);
+        boolean useCache = requestKey != null && !bypassCache && responseCache.isEnabled();
+        if (useCache) {
+            String cached = responseCache.get(requestKey);
+            if (cached != null) {
+                return Flux.just(cached);
+            }
         }
 
-        Map<String, Object> body = Map.of(
-                "model", model,
-                "messages", messages,
-                "temperature", 0.7,
-                "stream", true
-        );
+        // 첫 토큰을 받기 전까지만 재시도 (이미 보낸 토큰을 다시 보낼 수 없음)
+        Flux<String> upstream = Flux.defer(() -> {
+            AtomicBoolean started = new AtomicBoolean();
+            return upstreamGuard.guardStream(upstreamRouter.routeStream(endpoint -> chatMetrics.upstreamStream(
+                            endpoint.getName(), streamChatCompletion(endpoint, messages, useCache ? requestKey : null))))
+                    .doOnNext(ignored -> started.set(true))
+                    .retryWhen(retryPolicy.retry("stream", () -> !started.get()));
+        });
+        return requestKey == null ? upstream : singleFlight.joinStream(requestKey, () -> upstream);
+    }
 
-        Flux<String> raw = webClient.post()
+    private Flux<String> streamChatCompletion(UpstreamEndpoint endpoint, List<Map<String, String>> messages, String cacheKey) {
+        Map<String, Object> body = requestBody(endpoint.getModel(), messages, true);
+
+        Flux<DataBuffer> raw = endpoint.getWebClient().post()
                 .uri("/chat/completions")
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + endpoint.getApiKey())
                 .contentType(MediaType.APPLICATION_JSON)
                 .accept(MediaType.TEXT_EVENT_STREAM)
                 .bodyValue(body)
@@ -156,11 +174,53 @@ public class OpenAIService {
                         status -> status.isError(),
                         clientResponse -> clientResponse.bodyToMono(String.class)
                                 .defaultIfEmpty("")
-                                .flatMap(errorBody -> Mono.error(toUpstreamException(clientResponse.statusCode().value(), errorBody)))
+                                .flatMap(errorBody -> Mono.error(toUpstreamException(
+                                        clientResponse.statusCode().value(),
+                                        errorBody,
+                                        clientResponse.headers().asHttpHeaders()
+                                )))
                 )
-                .bodyToFlux(String.class);
+                .bodyToFlux(DataBuffer.class)
+                .onErrorMap(e -> !(e instanceof UpstreamException), this::toUpstreamException);
+
+        Flux<String> tokens = sseDecoder.decode(raw);
+        if (cacheKey == null) {
+            return tokens;
+        }
+        // 끝까지 정상 수신된 스트림만 캐시
+        StringBuilder content = new StringBuilder();
+        return tokens
+                .doOnNext(content::append)
+                .doOnComplete(() -> responseCache.put(cacheKey, content.toString()));
+    }
+
+    static List<Map<String, String>> buildMessages(List<Message> contextMessages) {
+        List<Map<String, String>> messages = new ArrayList<>(contextMessages.size() + 1);
+        messages.add(Map.of("role", "system", "content", "You are a helpful assistant."));
+        for (Message m : contextMessages) {
+            messages.add(Map.of("role", m.getRole(), "content", m.getContent()));
+        }
+        return messages;
+    }
 
-        return decodeOpenAiSse(raw);
+    static Map<String, Object> requestBody(String model, List<Map<String, String>> messages, boolean stream) {
+        if (stream) {
+            return Map.of("model", model, "messages", messages, "temperature", TEMPERATURE, "stream", true);
+        }
+        return Map.of("model", model, "messages", messages, "temperature", TEMPERATURE);
+    }
+
+    // 응답 캐시와 single-flight 가 같은 키를 사용. 둘 다 꺼져 있으면 해시 계산 생략
+    // 엔드포인트마다 모델이 다르면 실제로 보낼 모델을 키에 담을 수 없으므로 둘 다 사용하지 않음
+    private String requestKey(List<Map<String, String>> messages) {
+        if (!responseCache.isEnabled() && !singleFlight.isEnabled()) {
+            return null;
+        }
+        String sharedModel = upstreamRouter.sharedModel();
+        if (sharedModel == null) {
+            return null;
+        }
+        return ChatResponseCache.key(sharedModel, TEMPERATURE, messages);
     }
 
     private String summarize(String body) {
@@ -176,110 +236,55 @@ public class OpenAIService {
         return summarized.replaceAll("sk-[A-Za-z0-9_-]+", "sk-***");
     }
 
-    private Map<String, Object> requestChatCompletion(String token, Map<String, Object> body) {
-        try {
-            return webClient.post()
-                    .uri("/chat/completions")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(body)
-                    .retrieve()
-                    .onStatus(
-                            status -> status.isError(),
-                            clientResponse -> clientResponse.bodyToMono(String.class)
-                                    .defaultIfEmpty("")
-                                    .flatMap(errorBody -> {
-                                        int code = clientResponse.statusCode().value();
-                                        return Mono.error(toUpstreamException(code, errorBody));
-                                    })
-                    )
-                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
-                    .block(Duration.ofSeconds(Math.max(5, timeoutSeconds)));
-        } catch (WebClientRequestException e) {
-            log.warn("OpenAI API network error: {}", e.getMessage());
-            throw new UpstreamException("OpenAI API network error");
-        } catch (WebClientResponseException e) {
-            throw toUpstreamException(e.getStatusCode().value(), e.getResponseBodyAsString());
-        } catch (UpstreamException e) {
-            throw e;
-        } catch (Exception e) {
-            log.warn("OpenAI API unexpected error: {}", e.getMessage());
-            throw new UpstreamException("OpenAI API call failed");
-        }
-    }
-
-    private Flux<String> decodeOpenAiSse(Flux<String> raw) {
-        return Flux.create(sink -> {
-            StringBuilder buffer = new StringBuilder();
-
-            raw.subscribe(
-                    chunk -> {
-                        buffer.append(chunk);
-                        emitCompletedLines(buffer, sink);
-                    },
-                    sink::error,
-                    () -> {
-                        if (!buffer.isEmpty()) {
-                            handleSseLine(buffer.toString().trim(), sink);
-                        }
-                        sink.complete();
-                    }
-            );
-        });
-    }
+    private Mono<Map<String, Object>> requestChatCompletion(UpstreamEndpoint endpoint, List<Map<String, String>> messages) {
+        Map<String, Object> body = requestBody(endpoint.getModel(), messages, false);
 
-    private void emitCompletedLines(StringBuilder buffer, FluxSink<String> sink) {
-        int newLineIndex;
-        while ((newLineIndex = buffer.indexOf("\n")) >= 0) {
-            String line = buffer.substring(0, newLineIndex).trim();
-            buffer.delete(0, newLineIndex + 1);
-            handleSseLine(line, sink);
-        }
+        return endpoint.getWebClient().post()
+                .uri("/chat/completions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + endpoint.getApiKey())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .onStatus(
+                        status -> status.isError(),
+                        clientResponse -> clientResponse.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .flatMap(errorBody -> {
+                                    int code = clientResponse.statusCode().value();
+                                    return Mono.error(toUpstreamException(code, errorBody, clientResponse.headers().asHttpHeaders()));
+                                })
+                )
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .timeout(Duration.ofSeconds(Math.max(5, timeoutSeconds)))
+                .onErrorMap(e -> !(e instanceof UpstreamException), this::toUpstreamException);
     }
 
-    private void handleSseLine(String line, FluxSink<String> sink) {
-        if (line.isBlank() || !line.startsWith("data:")) {
-            return;
+    private UpstreamException toUpstreamException(Throwable e) {
+        if (e instanceof WebClientRequestException) {
+            log.warn("OpenAI API network error: {}", e.getMessage());
+            return UpstreamException.network("OpenAI API network error");
         }
-
-        String payload = line.substring(5).trim();
-        if ("[DONE]".equals(payload)) {
-            sink.complete();
-            return;
+        if (e instanceof WebClientResponseException responseException) {
+            return toUpstreamException(
+                    responseException.getStatusCode().value(),
+                    responseException.getResponseBodyAsString(),
+                    responseException.getHeaders()
+            );
         }
-
-        try {
-            JsonNode root = objectMapper.readTree(payload);
-            JsonNode contentNode = root.path("choices").path(0).path("delta").path("content");
-            if (!contentNode.isMissingNode() && !contentNode.isNull()) {
-                String token = contentNode.asText("");
-                if (!token.isBlank()) {
-                    sink.next(token);
-                }
-            }
-        } catch (Exception e) {
-            log.debug("OpenAI stream chunk parse skipped: {}", e.getMessage());
+        if (e instanceof TimeoutException) {
+            log.warn("OpenAI API timeout after {}s", Math.max(5, timeoutSeconds));
+            return UpstreamException.timeout("OpenAI API timeout");
         }
+        log.warn("OpenAI API unexpected error: {}", e.getMessage());
+        return new UpstreamException("OpenAI API call failed");
     }
 
-    private UpstreamException toUpstreamException(int code, String errorBody) {
+    private UpstreamException toUpstreamException(int code, String errorBody, HttpHeaders headers) {
         log.warn("OpenAI API error status={} body={}", code, sanitize(errorBody));
         if (code == 429) {
-            return new UpstreamException(
-                    HttpStatus.TOO_MANY_REQUESTS,
-                    ErrorCode.RATE_LIMITED,
-                    "OpenAI quota exceeded"
-            );
-        }
-        return new UpstreamException("OpenAI API error: " + code + " " + summarize(errorBody));
-    }
-
-    private void sleepRetryDelay() {
-        try {
-            Thread.sleep(Math.max(0, retryDelayMs));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new UpstreamException("OpenAI retry interrupted");
+            return UpstreamException.response(code, "OpenAI quota exceeded", UpstreamRetryPolicy.retryAfter(headers));
         }
+        Duration retryAfter = code == 503 ? UpstreamRetryPolicy.retryAfter(headers) : null;
+        return UpstreamException.response(code, "OpenAI API error: " + code + " " + summarize(errorBody), retryAfter);
     }
 }
@@ -0,0 +1,37 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class OpenAiConversationSummarizer implements ConversationSummarizer {
+
+    private static final String INSTRUCTION = "Summarize the conversation so far so it can replace the earlier turns as context. "
+            + "Keep names, facts, decisions and open questions. Reply with the summary only, in at most 200 words.";
+
+    private final OpenAIService openAIService;
+    private final UpstreamScheduler upstreamScheduler;
+    private final TokenCounter tokenCounter;
+
+    @Override
+    public Mono<String> summarize(String previousSummary, List<Message> messages) {
+        List<Message> prompt = new ArrayList<>(messages.size() + 2);
+        prompt.add(Message.of(null, "system", INSTRUCTION));
+        if (previousSummary != null) {
+            prompt.add(Message.of(null, "system", ConversationSummaryService.SUMMARY_PREFIX + previousSummary));
+        }
+        prompt.addAll(messages);
+        int cost = 0;
+        for (Message message : prompt) {
+            cost += tokenCounter.count(message);
+        }
+        // 사용자 요청과 같은 업스트림 슬롯을 쓰므로 스케줄러를 거쳐야 슬롯 수가 limit 을 넘지 않음
+        return upstreamScheduler.schedule(UpstreamScheduler.BACKGROUND_USER, cost, () -> openAIService.complete(prompt));
+    }
+}
@@ -0,0 +1,184 @@
+package com.chattingapi.chatbot.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@Slf4j
+public class OpenAiSseDecoder {
+
+    private static final byte[] DATA_PREFIX = "data:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DONE_PAYLOAD = "[DONE]".getBytes(StandardCharsets.US_ASCII);
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public Flux<String> decode(Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            StreamState state = new StreamState();
+            return body
+                    .map(state::feed)
+                    .takeUntil(ignored -> state.done)
+                    .concatWith(Mono.fromCallable(state::finish))
+                    .concatMapIterable(tokens -> tokens)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    private final class StreamState {
+
+        // 아직 줄바꿈을 만나지 못한 바이트만 보관 (청크당 1회 복사)
+        private byte[] pending = new byte[INITIAL_BUFFER_SIZE];
+        private int length;
+        private int scanOffset;
+        private boolean done;
+
+        List<String> feed(DataBuffer buffer) {
+            try {
+                int readable = buffer.readableByteCount();
+                ensureCapacity(length + readable);
+                buffer.read(pending, length, readable);
+                length += readable;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            return drainLines(false);
+        }
+
+        List<String> finish() {
+            return done ? List.of() : drainLines(true);
+        }
+
+        private List<String> drainLines(boolean endOfStream) {
+            List<String> tokens = null;
+            int lineStart = 0;
+            for (int i = scanOffset; i < length && !done; i++) {
+                if (pending[i] == '\n') {
+                    tokens = collect(tokens, handleLine(lineStart, i));
+                    lineStart = i + 1;
+                }
+            }
+            if (endOfStream && !done && lineStart < length) {
+                tokens = collect(tokens, handleLine(lineStart, length));
+                lineStart = length;
+            }
+            compact(done ? length : lineStart);
+            return tokens == null ? List.of() : tokens;
+        }
+
+        private String handleLine(int start, int end) {
+            while (start < end && isWhitespace(pending[start])) {
+                start++;
+            }
+            while (end > start && isWhitespace(pending[end - 1])) {
+                end--;
+            }
+            if (!startsWith(start, end, DATA_PREFIX)) {
+                return null;
+            }
+
+            int payloadStart = start + DATA_PREFIX.length;
+            while (payloadStart < end && isWhitespace(pending[payloadStart])) {
+                payloadStart++;
+            }
+            if (payloadStart == end) {
+                return null;
+            }
+            if (end - payloadStart == DONE_PAYLOAD.length && startsWith(payloadStart, end, DONE_PAYLOAD)) {
+                done = true;
+                return null;
+            }
+
+            try (JsonParser parser = jsonFactory.createParser(pending, payloadStart, end - payloadStart)) {
+                String token = readDeltaContent(parser);
+                return token == null || token.isBlank() ? null : token;
+            } catch (IOException e) {
+                log.debug("OpenAI stream chunk parse skipped: {}", e.getMessage());
+                return null;
+            }
+        }
+
+        private boolean startsWith(int start, int end, byte[] prefix) {
+            if (end - start < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (pending[start + i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void ensureCapacity(int required) {
+            if (required > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(required, pending.length * 2));
+            }
+        }
+
+        private void compact(int consumed) {
+            int remaining = length - consumed;
+            if (consumed > 0 && remaining > 0) {
+                System.arraycopy(pending, consumed, pending, 0, remaining);
+            }
+            length = remaining;
+            scanOffset = remaining;
+        }
+    }
+
+    // choices[0].delta.content 만 따라가고 나머지 필드는 토큰 단위로 건너뜀
+    private static String readDeltaContent(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        if (!seekField(parser, "choices") || parser.currentToken() != JsonToken.START_ARRAY) {
+            return null;
+        }
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        if (!seekField(parser, "delta") || parser.currentToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        if (!seekField(parser, "content") || parser.currentToken() != JsonToken.VALUE_STRING) {
+            return null;
+        }
+        return parser.getText();
+    }
+
+    private static boolean seekField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean match = name.equals(parser.currentName());
+            parser.nextToken();
+            if (match) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static List<String> collect(List<String> tokens, String token) {
+        if (token == null) {
+            return tokens;
+        }
+        List<String> target = tokens == null ? new ArrayList<>(4) : tokens;
+        target.add(token);
+        return target;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
@@ -0,0 +1,248 @@
+package com.chattingapi.chatbot.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "backend", havingValue = "postgres")
+@Slf4j
+public class PostgresRateLimiter {
+
+    private static final String UPSERT_SQL = """
+            insert into rate_limit_windows (limiter_key, window_start, used)
+            values (?, ?, ?)
+            on conflict (limiter_key, window_start)
+            do update set used = rate_limit_windows.used + excluded.used
+            """;
+    private static final String SELECT_SQL = """
+            select limiter_key, used
+            from rate_limit_windows
+            where window_start = ? and limiter_key = any(?)
+            """;
+    private static final String CLEANUP_SQL = "delete from rate_limit_windows where window_start < ?";
+    private static final int READ_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApiKeyHasher apiKeyHasher;
+    private final ConcurrentMap<String, WindowCounter> counters = new ConcurrentHashMap<>();
+    private final Queue<WindowCounter> retired = new ConcurrentLinkedQueue<>();
+    private final long windowMillis;
+    private final int requestsPerWindow;
+    private final int localPermits;
+    private final long staleAfterMs;
+
+    private volatile long lastSuccessfulSyncAt = System.currentTimeMillis();
+    private long lastCleanupWindow = -1;
+
+    @Autowired
+    public PostgresRateLimiter(
+            DataSource dataSource,
+            ApiKeyHasher apiKeyHasher,
+            @Value("${app.rate-limit.requests-per-window:60}") int requestsPerWindow,
+            @Value("${app.rate-limit.window-seconds:60}") long windowSeconds,
+            @Value("${app.rate-limit.postgres.local-permits:10}") int localPermits,
+            @Value("${app.rate-limit.postgres.stale-after-ms:3000}") long staleAfterMs,
+            @Value("${app.rate-limit.postgres.query-timeout-ms:1000}") long queryTimeoutMs
+    ) {
+        this(jdbcTemplate(dataSource, queryTimeoutMs), apiKeyHasher, requestsPerWindow, windowSeconds, localPermits, staleAfterMs);
+    }
+
+    PostgresRateLimiter(
+            JdbcTemplate jdbcTemplate,
+            ApiKeyHasher apiKeyHasher,
+            int requestsPerWindow,
+            long windowSeconds,
+            int localPermits,
+            long staleAfterMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.apiKeyHasher = apiKeyHasher;
+        this.requestsPerWindow = Math.max(1, requestsPerWindow);
+        this.windowMillis = Math.max(1, windowSeconds) * 1000L;
+        this.localPermits = Math.max(1, localPermits);
+        this.staleAfterMs = Math.max(1, staleAfterMs);
+    }
+
+    public boolean isHealthy(long nowMillis) {
+        return nowMillis - lastSuccessfulSyncAt <= staleAfterMs;
+    }
+
+    // 마지막 동기화 시점의 전역 사용량 + 아직 반영 안 된 로컬 사용량으로 판단 (DB 왕복 없음)
+    // 동기화 사이에 인스턴스가 로컬로 내줄 수 있는 허용량은 local-permits 로 제한
+    public boolean tryAcquire(String apiKey, long nowMillis) {
+        long windowIndex = nowMillis / windowMillis;
+        WindowCounter counter = counters.get(apiKey);
+        if (counter == null || counter.windowIndex != windowIndex) {
+            counter = counters.compute(apiKey, (key, existing) -> {
+                if (existing != null && existing.windowIndex == windowIndex) {
+                    return existing;
+                }
+                if (existing != null) {
+                    retired.add(existing);
+                }
+                return new WindowCounter(key, windowIndex);
+            });
+        }
+
+        while (true) {
+            int pending = counter.pending.get();
+            int unsynced = counter.flushing.get() + pending;
+            if (unsynced >= localPermits || counter.globalUsed + unsynced >= requestsPerWindow) {
+                return false;
+            }
+            if (counter.pending.compareAndSet(pending, pending + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.postgres.sync-interval-ms:500}")
+    public void sync() {
+        sync(System.currentTimeMillis());
+    }
+
+    void sync(long now) {
+        long currentWindow = now / windowMillis;
+
+        List<WindowCounter> flushed = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        WindowCounter old;
+        while ((old = retired.poll()) != null) {
+            drain(old, flushed, upserts);
+        }
+        List<WindowCounter> active = new ArrayList<>();
+        for (WindowCounter counter : counters.values()) {
+            if (counter.windowIndex == currentWindow) {
+                active.add(counter);
+                drain(counter, flushed, upserts);
+            } else if (counters.remove(counter.apiKey, counter)) {
+                drain(counter, flushed, upserts);
+            }
+        }
+
+        // upsert 는 autocommit 이므로 되돌릴 수 있는 건 upsert 자체가 실패한 경우뿐
+        try {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+            }
+        } catch (DataAccessException e) {
+            for (WindowCounter counter : flushed) {
+                counter.pending.addAndGet(counter.flushing.getAndSet(0));
+                if (counter.windowIndex != currentWindow) {
+                    retired.add(counter);
+                }
+            }
+            log.warn("Rate limit sync failed; local limiter used until recovered: {}", e.getMessage());
+            return;
+        }
+        // 반영된 양은 조회 전까지 전역 사용량에 더해 둠 (조회가 실패해도 다시 보내지 않음)
+        for (WindowCounter counter : flushed) {
+            counter.globalUsed += counter.flushing.getAndSet(0);
+        }
+
+        try {
+            refreshGlobalUsage(active, currentWindow);
+            lastSuccessfulSyncAt = now;
+        } catch (DataAccessException e) {
+            log.warn("Rate limit usage refresh failed; local limiter used until recovered: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            cleanupExpiredWindows(currentWindow);
+        } catch (DataAccessException e) {
+            log.warn("Rate limit window cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    public void clear() {
+        counters.clear();
+        retired.clear();
+    }
+
+    private static JdbcTemplate jdbcTemplate(DataSource dataSource, long queryTimeoutMs) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout((int) Math.max(1, (queryTimeoutMs + 999) / 1000));
+        return jdbcTemplate;
+    }
+
+    private void drain(WindowCounter counter, List<WindowCounter> flushed, List<Object[]> upserts) {
+        int delta = counter.pending.getAndSet(0);
+        if (delta <= 0) {
+            return;
+        }
+        counter.flushing.addAndGet(delta);
+        flushed.add(counter);
+        upserts.add(new Object[]{counter.limiterKey(), counter.windowIndex * windowMillis / 1000, delta});
+    }
+
+    private void refreshGlobalUsage(List<WindowCounter> active, long currentWindow) {
+        long windowStart = currentWindow * windowMillis / 1000;
+        for (int from = 0; from < active.size(); from += READ_CHUNK_SIZE) {
+            List<WindowCounter> chunk = active.subList(from, Math.min(active.size(), from + READ_CHUNK_SIZE));
+            Map<String, WindowCounter> byKey = new HashMap<>();
+            for (WindowCounter counter : chunk) {
+                byKey.put(counter.limiterKey(), counter);
+            }
+            jdbcTemplate.query(SELECT_SQL, ps -> {
+                Array keys = ps.getConnection().createArrayOf("varchar", byKey.keySet().toArray());
+                ps.setLong(1, windowStart);
+                ps.setArray(2, keys);
+            }, rs -> {
+                WindowCounter counter = byKey.get(rs.getString("limiter_key"));
+                if (counter != null) {
+                    counter.globalUsed = rs.getInt("used");
+                }
+            });
+        }
+    }
+
+    private void cleanupExpiredWindows(long currentWindow) {
+        if (currentWindow == lastCleanupWindow) {
+            return;
+        }
+        jdbcTemplate.update(CLEANUP_SQL, (currentWindow - 1) * windowMillis / 1000);
+        lastCleanupWindow = currentWindow;
+    }
+
+    private final class WindowCounter {
+
+        private final String apiKey;
+        private final long windowIndex;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger flushing = new AtomicInteger();
+        private volatile int globalUsed;
+        private String limiterKey;
+
+        WindowCounter(String apiKey, long windowIndex) {
+            this.apiKey = apiKey;
+            this.windowIndex = windowIndex;
+        }
+
+        // 동기화 스레드에서만 호출
+        String limiterKey() {
+            if (limiterKey == null) {
+                limiterKey = apiKeyHasher.hash(apiKey);
+            }
+            return limiterKey;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.chattingapi.chatbot.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// 요청마다 발생하므로 기본은 느린 검사만 기록. 설정 파일에서 threshold 를 0 으로 낮출 수 있음
+@Name("chatbot.RateLimitCheck")
+@Label("Rate Limit Check")
+@Category({"Chatbot", "Rate Limit"})
+@Threshold("1 ms")
+class RateLimitCheckEvent extends jdk.jfr.Event {
+
+    @Label("Backend")
+    String backend;
+
+    @Label("Allowed")
+    boolean allowed;
+}
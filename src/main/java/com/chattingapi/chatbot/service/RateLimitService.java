@@ -1,18 +1,27 @@
 package com.chattingapi.chatbot.service;
 
 import com.chattingapi.chatbot.exception.RateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.time.Duration;
 
 @Service
+@RequiredArgsConstructor
 public class RateLimitService {
 
-    private final ConcurrentMap<String, Deque<Long>> windows = new ConcurrentHashMap<>();
+    private final ObjectProvider<PostgresRateLimiter> postgresRateLimiterProvider;
+    private final MeterRegistry meterRegistry;
+
+    private LocalRateLimiter localLimiter;
+    private PostgresRateLimiter distributedLimiter;
+    private Counter localRejected;
+    private Counter distributedRejected;
 
     @Value("${app.rate-limit.enabled:true}")
     private boolean enabled;
@@ -23,6 +32,21 @@ public class RateLimitService {
     @Value("${app.rate-limit.window-seconds:60}")
     private long windowSeconds;
 
+    @Value("${app.rate-limit.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+
+    @PostConstruct
+    void init() {
+        localLimiter = new LocalRateLimiter(
+                requestsPerWindow,
+                Duration.ofSeconds(Math.max(1, windowSeconds)),
+                maxTrackedKeys
+        );
+        distributedLimiter = postgresRateLimiterProvider.getIfAvailable();
+        localRejected = Counter.builder("chat.rate-limit.rejected").tag("backend", "local").register(meterRegistry);
+        distributedRejected = Counter.builder("chat.rate-limit.rejected").tag("backend", "postgres").register(meterRegistry);
+    }
+
     public void checkOrThrow(String apiKey) {
         if (!enabled) {
             return;
@@ -31,23 +55,30 @@ public class RateLimitService {
             return;
         }
 
-        long now = System.currentTimeMillis();
-        long windowStart = now - (Math.max(1, windowSeconds) * 1000L);
         String key = apiKey.strip();
-        Deque<Long> queue = windows.computeIfAbsent(key, ignored -> new ArrayDeque<>());
-
-        synchronized (queue) {
-            while (!queue.isEmpty() && queue.peekFirst() < windowStart) {
-                queue.pollFirst();
-            }
-            if (queue.size() >= Math.max(1, requestsPerWindow)) {
-                throw new RateLimitedException("Rate limit exceeded");
-            }
-            queue.addLast(now);
+        long now = System.currentTimeMillis();
+        RateLimitCheckEvent event = new RateLimitCheckEvent();
+        event.begin();
+        boolean distributed = distributedLimiter != null && distributedLimiter.isHealthy(now);
+        boolean allowed = distributed
+                ? distributedLimiter.tryAcquire(key, now)
+                : localLimiter.tryAcquire(key, now);
+        event.end();
+        if (event.shouldCommit()) {
+            event.backend = distributed ? "postgres" : "local";
+            event.allowed = allowed;
+            event.commit();
+        }
+        if (!allowed) {
+            (distributed ? distributedRejected : localRejected).increment();
+            throw new RateLimitedException("Rate limit exceeded");
         }
     }
 
     public void clearAll() {
-        windows.clear();
+        localLimiter.clear();
+        if (distributedLimiter != null) {
+            distributedLimiter.clear();
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.chattingapi.chatbot.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// 토큰마다 발생하므로 기본은 느린 전송(클라이언트 백프레셔)만 기록
+@Name("chatbot.SseSend")
+@Label("SSE Send")
+@Category({"Chatbot", "Streaming"})
+@Threshold("1 ms")
+class SseSendEvent extends jdk.jfr.Event {
+
+    @Label("Event Name")
+    String eventName;
+
+    @Label("Characters")
+    long length;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,126 @@
+package com.chattingapi.chatbot.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class SseTokenCoalescer {
+
+    @Value("${app.stream.coalesce.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.stream.coalesce.max-delay-ms:20}")
+    private long maxDelayMs;
+
+    @Value("${app.stream.coalesce.max-bytes:256}")
+    private int maxBytes;
+
+    public Flux<String> coalesce(Flux<String> tokens) {
+        if (!enabled || maxDelayMs <= 0) {
+            return tokens;
+        }
+        return Flux.create(sink -> {
+            Batch batch = new Batch(sink);
+            Disposable upstream = tokens.subscribe(batch::onToken, batch::onError, batch::onComplete);
+            sink.onDispose(() -> {
+                upstream.dispose();
+                batch.cancelTimer();
+            });
+        });
+    }
+
+    private final class Batch {
+
+        private final FluxSink<String> sink;
+        private final StringBuilder buffer = new StringBuilder();
+        private int bufferedBytes;
+        private long lastEmitNanos;
+        private boolean emitted;
+        private Disposable timer;
+
+        Batch(FluxSink<String> sink) {
+            this.sink = sink;
+        }
+
+        synchronized void onToken(String token) {
+            long now = System.nanoTime();
+            // 첫 토큰, 또는 한동안 조용하다가 도착한 토큰은 기다리지 않고 바로 보냄
+            if (buffer.isEmpty() && (!emitted || now - lastEmitNanos >= TimeUnit.MILLISECONDS.toNanos(maxDelayMs))) {
+                emit(token, now);
+                return;
+            }
+            buffer.append(token);
+            bufferedBytes += utf8Length(token);
+            if (bufferedBytes >= maxBytes) {
+                flush();
+                return;
+            }
+            if (timer == null) {
+                timer = Schedulers.parallel().schedule(this::onTimer, maxDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void onComplete() {
+            flush();
+            sink.complete();
+        }
+
+        synchronized void onError(Throwable error) {
+            flush();
+            sink.error(error);
+        }
+
+        synchronized void cancelTimer() {
+            if (timer != null) {
+                timer.dispose();
+                timer = null;
+            }
+        }
+
+        private synchronized void onTimer() {
+            timer = null;
+            flush();
+        }
+
+        private void flush() {
+            cancelTimer();
+            if (buffer.isEmpty()) {
+                return;
+            }
+            String batched = buffer.toString();
+            buffer.setLength(0);
+            bufferedBytes = 0;
+            emit(batched, System.nanoTime());
+        }
+
+        private void emit(String data, long now) {
+            emitted = true;
+            lastEmitNanos = now;
+            sink.next(data);
+        }
+    }
+
+    private static int utf8Length(String token) {
+        int bytes = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,54 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class TokenCounter {
+
+    // chat 포맷에서 메시지마다 붙는 role/구분자 토큰
+    static final int MESSAGE_OVERHEAD = 4;
+
+    private final Encoding encoding;
+    private final Cache<Long, Integer> counts;
+
+    public TokenCounter(
+            MeterRegistry meterRegistry,
+            @Value("${openai.model}") String model,
+            @Value("${app.context.token-cache-entries:100000}") long maxEntries
+    ) {
+        EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+        this.encoding = registry.getEncodingForModel(model).orElseGet(() -> {
+            log.info("Unknown tokenizer for model={}; using o200k_base", model);
+            return registry.getEncoding(EncodingType.O200K_BASE);
+        });
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxEntries))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "chat.tokens");
+    }
+
+    public int count(String text) {
+        return text == null || text.isEmpty() ? 0 : encoding.countTokensOrdinary(text);
+    }
+
+    // 저장된 메시지는 내용이 바뀌지 않으므로 id 기준으로 캐시
+    public int count(Message message) {
+        if (message.getId() == null) {
+            return count(message.getContent()) + MESSAGE_OVERHEAD;
+        }
+        return counts.get(message.getId(), ignored -> count(message.getContent()) + MESSAGE_OVERHEAD);
+    }
+}
@@ -0,0 +1,26 @@
+package com.chattingapi.chatbot.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// 업스트림 시도 1회 (재시도/헤지는 각각 별도 이벤트)
+@Name("chatbot.UpstreamCall")
+@Label("Upstream Call")
+@Category({"Chatbot", "Upstream"})
+@Description("One OpenAI request attempt")
+class UpstreamCallEvent extends jdk.jfr.Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Chunks")
+    long chunks;
+}
@@ -0,0 +1,106 @@
+package com.chattingapi.chatbot.service;
+
+// 최근 windowSize 건의 결과로 실패율을 계산하는 count 기반 서킷 브레이커
+public class UpstreamCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failed;
+    private long openUntil;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public UpstreamCircuitBreaker(int windowSize, int minimumCalls, int failureRateThreshold, long openNanos, int halfOpenCalls) {
+        this.failures = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.min(failures.length, Math.max(1, minimumCalls));
+        this.failureRateThreshold = Math.min(100, Math.max(1, failureRateThreshold));
+        this.openNanos = Math.max(1, openNanos);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    public synchronized boolean tryAcquire(long nowNanos) {
+        if (state == State.OPEN) {
+            if (nowNanos - openUntil < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits <= 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                reset();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(long nowNanos) {
+        if (state == State.HALF_OPEN) {
+            open(nowNanos);
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && failed * 100 >= failureRateThreshold * recorded) {
+            open(nowNanos);
+        }
+    }
+
+    // 결과 없이 끝난 호출(취소 등)의 half-open 허용량 반환
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failed--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        if (failure) {
+            failed++;
+        }
+        next = (next + 1) % failures.length;
+    }
+
+    private void open(long nowNanos) {
+        state = State.OPEN;
+        openUntil = nowNanos + openNanos;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failed = 0;
+    }
+}
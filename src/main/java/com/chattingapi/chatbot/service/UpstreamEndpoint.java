@@ -0,0 +1,104 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.dto.UpstreamEndpointStats;
+import lombok.Getter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.concurrent.TimeUnit;
+
+public class UpstreamEndpoint {
+
+    private static final double ALPHA = 0.2;
+    private static final double INITIAL_LATENCY_MS = 1000;
+
+    @Getter
+    private final String name;
+    @Getter
+    private final String baseUrl;
+    @Getter
+    private final WebClient webClient;
+    @Getter
+    private final String apiKey;
+    @Getter
+    private final String model;
+    @Getter
+    private final int weight;
+
+    private double latencyEwmaMs = INITIAL_LATENCY_MS;
+    private double errorEwma;
+    private int consecutiveFailures;
+    private long ejectedUntilNanos;
+    private boolean ejected;
+    private long requests;
+    private long failures;
+
+    public UpstreamEndpoint(String name, String baseUrl, WebClient webClient, String apiKey, String model, int weight) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.webClient = webClient;
+        this.apiKey = apiKey;
+        this.model = model;
+        this.weight = Math.max(1, weight);
+    }
+
+    synchronized boolean isAvailable(long nowNanos) {
+        if (ejected && nowNanos - ejectedUntilNanos >= 0) {
+            ejected = false;
+            consecutiveFailures = 0;
+        }
+        return !ejected;
+    }
+
+    // 낮을수록 우선. 지연 EWMA 에 오류율 가중치를 곱하고 weight 로 나눔
+    synchronized double cost() {
+        return latencyEwmaMs * (1 + 4 * errorEwma) / weight;
+    }
+
+    synchronized void onSuccess(long latencyNanos) {
+        requests++;
+        consecutiveFailures = 0;
+        latencyEwmaMs += ALPHA * (TimeUnit.NANOSECONDS.toMillis(latencyNanos) - latencyEwmaMs);
+        errorEwma += ALPHA * (0 - errorEwma);
+    }
+
+    // 실패가 누적됐는지 반환 (꺼낼지는 라우터가 판단)
+    synchronized int onFailure() {
+        requests++;
+        failures++;
+        errorEwma += ALPHA * (1 - errorEwma);
+        return ++consecutiveFailures;
+    }
+
+    synchronized void eject(long untilNanos) {
+        ejected = true;
+        ejectedUntilNanos = untilNanos;
+    }
+
+    synchronized long ejectedUntilNanos() {
+        return ejected ? ejectedUntilNanos : Long.MIN_VALUE;
+    }
+
+    synchronized double latencyEwmaMs() {
+        return latencyEwmaMs;
+    }
+
+    synchronized double errorRate() {
+        return errorEwma;
+    }
+
+    synchronized UpstreamEndpointStats stats(long nowNanos) {
+        boolean out = ejected && nowNanos - ejectedUntilNanos < 0;
+        return new UpstreamEndpointStats(
+                name,
+                baseUrl,
+                model,
+                weight,
+                Math.round(latencyEwmaMs),
+                Math.round(errorEwma * 1000) / 1000.0,
+                requests,
+                failures,
+                out,
+                out ? TimeUnit.NANOSECONDS.toMillis(ejectedUntilNanos - nowNanos) : 0
+        );
+    }
+}
@@ -0,0 +1,169 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 업스트림 호출 1회(시도 단위)를 동시성 제한 + 서킷 브레이커로 감쌈
+@Component
+@Slf4j
+public class UpstreamGuard {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final boolean limiterEnabled;
+    private final boolean circuitBreakerEnabled;
+    private final Counter limitRejected;
+    private final Counter circuitRejected;
+    private final List<Runnable> limitRaisedListeners = new CopyOnWriteArrayList<>();
+
+    public UpstreamGuard(
+            MeterRegistry meterRegistry,
+            @Value("${openai.concurrency.enabled:true}") boolean limiterEnabled,
+            @Value("${openai.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${openai.concurrency.min-limit:2}") int minLimit,
+            @Value("${openai.concurrency.max-limit:200}") int maxLimit,
+            @Value("${openai.concurrency.latency-threshold-ms:15000}") long latencyThresholdMs,
+            @Value("${openai.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${openai.circuit-breaker.enabled:true}") boolean circuitBreakerEnabled,
+            @Value("${openai.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${openai.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${openai.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${openai.circuit-breaker.open-seconds:30}") long openSeconds,
+            @Value("${openai.circuit-breaker.half-open-calls:3}") int halfOpenCalls
+    ) {
+        this.limiterEnabled = limiterEnabled;
+        this.circuitBreakerEnabled = circuitBreakerEnabled;
+        this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+                TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs), backoffRatio);
+        this.circuitBreaker = new UpstreamCircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                TimeUnit.SECONDS.toNanos(openSeconds), halfOpenCalls);
+
+        Gauge.builder("openai.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit).register(meterRegistry);
+        Gauge.builder("openai.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::inFlight).register(meterRegistry);
+        Gauge.builder("openai.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                .description("0=closed, 1=open, 2=half-open")
+                .register(meterRegistry);
+        this.limitRejected = Counter.builder("openai.guard.rejected").tag("reason", "concurrency").register(meterRegistry);
+        this.circuitRejected = Counter.builder("openai.guard.rejected").tag("reason", "circuit-open").register(meterRegistry);
+    }
+
+    public int currentLimit() {
+        return limiterEnabled ? limiter.limit() : Integer.MAX_VALUE;
+    }
+
+    // limit 이 늘면 호출됨. 대기 중인 요청을 다른 요청이 끝나기 전에 바로 보낼 수 있도록 (UpstreamScheduler)
+    public void onLimitRaised(Runnable listener) {
+        limitRaisedListeners.add(listener);
+    }
+
+    public <T> Mono<T> guard(Mono<T> call) {
+        return Mono.defer(() -> {
+            Permit permit = acquire();
+            return call
+                    .doOnSuccess(ignored -> permit.success())
+                    .doOnError(permit::failure)
+                    .doFinally(permit::finish);
+        });
+    }
+
+    // 스트림은 첫 토큰까지의 시간을 지연 샘플로 사용하고, 스트림이 끝날 때 in-flight 반환
+    public <T> Flux<T> guardStream(Flux<T> call) {
+        return Flux.defer(() -> {
+            Permit permit = acquire();
+            return call
+                    .doOnNext(ignored -> permit.success())
+                    .doOnComplete(permit::success)
+                    .doOnError(permit::failure)
+                    .doFinally(permit::finish);
+        });
+    }
+
+    private Permit acquire() {
+        if (limiterEnabled && !limiter.tryAcquire()) {
+            limitRejected.increment();
+            throw new UpstreamException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.UPSTREAM_UNAVAILABLE, "OpenAI concurrency limit reached");
+        }
+        if (circuitBreakerEnabled && !circuitBreaker.tryAcquire(System.nanoTime())) {
+            if (limiterEnabled) {
+                limiter.release();
+            }
+            circuitRejected.increment();
+            throw new UpstreamException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.UPSTREAM_UNAVAILABLE, "OpenAI circuit open");
+        }
+        return new Permit(System.nanoTime());
+    }
+
+    private final class Permit {
+
+        private final long startedAt;
+        private final AtomicBoolean sampled = new AtomicBoolean();
+
+        Permit(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        void success() {
+            if (!sampled.compareAndSet(false, true)) {
+                return;
+            }
+            if (limiterEnabled) {
+                int before = limiter.limit();
+                limiter.onSample(System.nanoTime() - startedAt, false);
+                if (limiter.limit() > before) {
+                    limitRaisedListeners.forEach(Runnable::run);
+                }
+            }
+            if (circuitBreakerEnabled) {
+                circuitBreaker.onSuccess();
+            }
+        }
+
+        // 스트림이 토큰을 보낸 뒤 실패한 경우는 이미 성공으로 집계됨
+        void failure(Throwable error) {
+            if (!sampled.compareAndSet(false, true)) {
+                return;
+            }
+            // 과부하 신호(타임아웃, 5xx)에서만 limit 을 줄임. 4xx/429/네트워크 오류는 limit 조정에 쓰지 않음
+            if (limiterEnabled && error instanceof UpstreamException ue && (ue.isTimeout() || ue.isServerError())) {
+                limiter.onSample(System.nanoTime() - startedAt, true);
+            }
+            if (!circuitBreakerEnabled) {
+                return;
+            }
+            // 5xx, 네트워크 오류, 타임아웃만 서킷 실패로 셈. 429 는 쿼터 문제, 4xx 는 요청 자체의 문제
+            if (error instanceof UpstreamException ue && ue.isUpstreamFault() && !ue.isRateLimited()) {
+                boolean wasOpen = circuitBreaker.state() == UpstreamCircuitBreaker.State.OPEN;
+                circuitBreaker.onFailure(System.nanoTime());
+                if (!wasOpen && circuitBreaker.state() == UpstreamCircuitBreaker.State.OPEN) {
+                    log.warn("OpenAI circuit opened reason={}", ue.getMessage());
+                }
+            } else {
+                circuitBreaker.onIgnored();
+            }
+        }
+
+        void finish(SignalType signal) {
+            if (signal == SignalType.CANCEL && sampled.compareAndSet(false, true) && circuitBreakerEnabled) {
+                circuitBreaker.onIgnored();
+            }
+            if (limiterEnabled) {
+                limiter.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.chattingapi.chatbot.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("chatbot.UpstreamRetry")
+@Label("Upstream Retry")
+@Category({"Chatbot", "Upstream"})
+class UpstreamRetryEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Attempt")
+    long attempt;
+
+    @Label("Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long delay;
+
+    @Label("Reason")
+    String reason;
+}
@@ -0,0 +1,171 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// 지수 백오프 + full jitter. Retry-After / x-ratelimit-reset-* 가 있으면 그 이후에 재시도하고 전체 데드라인을 넘기지 않음
+@Component
+@Slf4j
+public class UpstreamRetryPolicy {
+
+    private static final Pattern RESET_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long deadlineMillis;
+    private final boolean retryRateLimited;
+    private final Map<String, Counter> retries = new ConcurrentHashMap<>();
+
+    public UpstreamRetryPolicy(
+            MeterRegistry meterRegistry,
+            @Value("${openai.max-retries:2}") int maxRetries,
+            @Value("${openai.retry-delay-ms:500}") long baseDelayMillis,
+            @Value("${openai.retry.max-delay-ms:8000}") long maxDelayMillis,
+            @Value("${openai.retry.deadline-ms:20000}") long deadlineMillis,
+            @Value("${openai.retry.rate-limited:true}") boolean retryRateLimited
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxRetries + 1);
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.deadlineMillis = Math.max(0, deadlineMillis);
+        this.retryRateLimited = retryRateLimited;
+    }
+
+    public Retry retry(String operation, BooleanSupplier retryAllowed) {
+        return Retry.from(signals -> {
+            long startedAt = System.nanoTime();
+            return signals.concatMap(signal -> {
+                Throwable failure = signal.failure();
+                long attempt = signal.totalRetries() + 1;
+                if (attempt >= maxAttempts || !isRetryable(failure) || !retryAllowed.getAsBoolean()) {
+                    return Mono.error(failure);
+                }
+                long delay = delayMillis(attempt, failure);
+                long elapsed = (System.nanoTime() - startedAt) / 1_000_000;
+                if (elapsed + delay > deadlineMillis) {
+                    return Mono.error(failure);
+                }
+                log.warn("OpenAI retry op={} attempt={}/{} delayMs={} reason={}",
+                        operation, attempt + 1, maxAttempts, delay, failure.getMessage());
+                retries.computeIfAbsent(operation, op -> meterRegistry.counter("openai.retry", "op", op)).increment();
+                UpstreamRetryEvent event = new UpstreamRetryEvent();
+                if (event.shouldCommit()) {
+                    event.operation = operation;
+                    event.attempt = attempt + 1;
+                    event.delay = delay;
+                    event.reason = failure.getMessage();
+                    event.commit();
+                }
+                return Mono.delay(Duration.ofMillis(delay));
+            });
+        });
+    }
+
+    // 5xx, 네트워크 오류, 타임아웃, 다른 엔드포인트로의 전환만 재시도. 400/401/404 와 응답 형식 오류는 다시 보내도 같음
+    boolean isRetryable(Throwable failure) {
+        if (!(failure instanceof UpstreamException ue)) {
+            return false;
+        }
+        if (ue.isServerError() || ue.isTimeout() || ue.isNetworkError() || ue.isFailover()) {
+            return true;
+        }
+        // 쿼터 소진 429 는 재시도해도 소용없으므로 재시도 시점 힌트가 있을 때만 재시도
+        return ue.isRateLimited() && retryRateLimited && ue.getRetryAfter() != null;
+    }
+
+    long delayMillis(long attempt, Throwable failure) {
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << Math.min(20, attempt - 1));
+        long jittered = ThreadLocalRandom.current().nextLong(cap + 1);
+        if (failure instanceof UpstreamException ue && ue.getRetryAfter() != null) {
+            return Math.max(ue.getRetryAfter().toMillis(), jittered);
+        }
+        return jittered;
+    }
+
+    public static Duration retryAfter(HttpHeaders headers) {
+        Duration hint = null;
+        String retryAfterMs = headers.getFirst("retry-after-ms");
+        if (retryAfterMs != null) {
+            hint = max(hint, parseMillis(retryAfterMs));
+        }
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            hint = max(hint, parseRetryAfter(retryAfter.trim()));
+        }
+        hint = max(hint, parseReset(headers.getFirst("x-ratelimit-reset-requests")));
+        hint = max(hint, parseReset(headers.getFirst("x-ratelimit-reset-tokens")));
+        return hint;
+    }
+
+    private static Duration parseRetryAfter(String value) {
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException ignored) {
+            // HTTP-date 형식
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration until = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            return until.isNegative() ? Duration.ZERO : until;
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+
+    private static Duration parseMillis(String value) {
+        try {
+            return Duration.ofMillis(Math.max(0, (long) Double.parseDouble(value.trim())));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+
+    // "20ms", "1s", "6m0s", "1h2m3.5s"
+    private static Duration parseReset(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Matcher matcher = RESET_PART.matcher(value.trim());
+        double millis = 0;
+        boolean matched = false;
+        while (matcher.find()) {
+            matched = true;
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1_000;
+                default -> amount;
+            };
+        }
+        return matched ? Duration.ofMillis((long) Math.ceil(millis)) : null;
+    }
+
+    private static Duration max(Duration current, Duration candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.compareTo(current) > 0 ? candidate : current;
+    }
+}
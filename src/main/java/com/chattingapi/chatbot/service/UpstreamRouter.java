@@ -0,0 +1,160 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.dto.UpstreamEndpointStats;
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// 가중치 기반으로 후보 두 개를 뽑아 지연/오류 EWMA 비용이 낮은 쪽으로 보냄 (power of two choices)
+// 429 는 즉시, 연속 실패는 eject-after-failures 회 이후 eject-seconds 동안 제외
+@Slf4j
+public class UpstreamRouter {
+
+    private final List<UpstreamEndpoint> endpoints;
+    private final int ejectAfterFailures;
+    private final Duration ejectDuration;
+    private final String sharedModel;
+
+    public UpstreamRouter(List<UpstreamEndpoint> endpoints, int ejectAfterFailures, Duration ejectDuration, MeterRegistry meterRegistry) {
+        this.endpoints = List.copyOf(endpoints);
+        this.ejectAfterFailures = Math.max(1, ejectAfterFailures);
+        this.ejectDuration = ejectDuration;
+        List<String> models = this.endpoints.stream().map(UpstreamEndpoint::getModel).distinct().toList();
+        this.sharedModel = models.size() == 1 ? models.get(0) : null;
+        if (models.size() > 1) {
+            log.warn("OpenAI endpoints use different models; response cache and single-flight are disabled models={}", models);
+        }
+        for (UpstreamEndpoint endpoint : this.endpoints) {
+            Gauge.builder("openai.endpoint.latency", endpoint, UpstreamEndpoint::latencyEwmaMs)
+                    .tag("endpoint", endpoint.getName())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("openai.endpoint.error.rate", endpoint, UpstreamEndpoint::errorRate)
+                    .tag("endpoint", endpoint.getName())
+                    .register(meterRegistry);
+            Gauge.builder("openai.endpoint.ejected", endpoint, e -> e.isAvailable(System.nanoTime()) ? 0 : 1)
+                    .tag("endpoint", endpoint.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean hasEndpoints() {
+        return !endpoints.isEmpty();
+    }
+
+    // 모든 엔드포인트가 같은 모델이면 그 모델, 아니면 null (어느 모델이 응답할지 요청 전에는 알 수 없음)
+    public String sharedModel() {
+        return sharedModel;
+    }
+
+    public UpstreamEndpoint select() {
+        if (endpoints.isEmpty()) {
+            throw new UpstreamException("OpenAI API key is empty");
+        }
+        long now = System.nanoTime();
+        List<UpstreamEndpoint> available = endpoints.stream().filter(e -> e.isAvailable(now)).toList();
+        if (available.isEmpty()) {
+            // 모두 빠져 있으면 가장 먼저 복귀할 엔드포인트로 보냄
+            return endpoints.stream().min(Comparator.comparingLong(UpstreamEndpoint::ejectedUntilNanos)).orElseThrow();
+        }
+        if (available.size() == 1) {
+            return available.get(0);
+        }
+        UpstreamEndpoint first = pickWeighted(available);
+        UpstreamEndpoint second = pickWeighted(available);
+        return first.cost() <= second.cost() ? first : second;
+    }
+
+    public <T> Mono<T> route(Function<UpstreamEndpoint, Mono<T>> call) {
+        return Mono.defer(() -> {
+            UpstreamEndpoint endpoint = select();
+            long startedAt = System.nanoTime();
+            return call.apply(endpoint)
+                    .doOnSuccess(ignored -> endpoint.onSuccess(System.nanoTime() - startedAt))
+                    .doOnError(e -> onFailure(endpoint, e))
+                    .onErrorMap(this::canFailOver, e -> failOver(endpoint));
+        });
+    }
+
+    // 스트림은 첫 토큰까지의 시간을 지연으로 기록
+    public <T> Flux<T> routeStream(Function<UpstreamEndpoint, Flux<T>> call) {
+        return Flux.defer(() -> {
+            UpstreamEndpoint endpoint = select();
+            long startedAt = System.nanoTime();
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call.apply(endpoint)
+                    .doOnNext(ignored -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            endpoint.onSuccess(System.nanoTime() - startedAt);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onFailure(endpoint, e);
+                        }
+                    })
+                    .onErrorMap(this::canFailOver, e -> failOver(endpoint));
+        });
+    }
+
+    public List<UpstreamEndpointStats> stats() {
+        long now = System.nanoTime();
+        return endpoints.stream().map(e -> e.stats(now)).toList();
+    }
+
+    // 429, 5xx, 네트워크 오류, 타임아웃만 엔드포인트 실패로 셈. 400/401/404 는 엔드포인트가 정상 응답한 것
+    void onFailure(UpstreamEndpoint endpoint, Throwable error) {
+        if (!(error instanceof UpstreamException ue) || !ue.isUpstreamFault()) {
+            return;
+        }
+        int consecutive = endpoint.onFailure();
+        long now = System.nanoTime();
+        if (ue.isRateLimited()) {
+            Duration ejectFor = ue.getRetryAfter() != null ? ue.getRetryAfter() : ejectDuration;
+            endpoint.eject(now + ejectFor.toNanos());
+            log.warn("OpenAI endpoint ejected endpoint={} reason=rate-limited ejectMs={}", endpoint.getName(), ejectFor.toMillis());
+        } else if (consecutive >= ejectAfterFailures) {
+            endpoint.eject(now + ejectDuration.toNanos());
+            log.warn("OpenAI endpoint ejected endpoint={} reason=failures consecutive={}", endpoint.getName(), consecutive);
+        }
+    }
+
+    // 429 라도 다른 엔드포인트가 살아 있으면 재시도 대상 오류로 바꿔 바로 다른 곳으로 보냄
+    private boolean canFailOver(Throwable error) {
+        if (!(error instanceof UpstreamException ue) || ue.getErrorCode() != ErrorCode.RATE_LIMITED) {
+            return false;
+        }
+        long now = System.nanoTime();
+        return endpoints.stream().anyMatch(e -> e.isAvailable(now));
+    }
+
+    private UpstreamException failOver(UpstreamEndpoint endpoint) {
+        return UpstreamException.failover("OpenAI endpoint rate limited: " + endpoint.getName());
+    }
+
+    private UpstreamEndpoint pickWeighted(List<UpstreamEndpoint> candidates) {
+        int total = 0;
+        for (UpstreamEndpoint endpoint : candidates) {
+            total += endpoint.getWeight();
+        }
+        int point = ThreadLocalRandom.current().nextInt(total);
+        for (UpstreamEndpoint endpoint : candidates) {
+            point -= endpoint.getWeight();
+            if (point < 0) {
+                return endpoint;
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+}
@@ -0,0 +1,177 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.RateLimitedException;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// 사용자 요청 1건(재시도/헤지 포함)을 업스트림 슬롯 하나로 보고, 슬롯이 모자라면 사용자별 공정 큐에서 대기
+// 슬롯 수는 UpstreamGuard 의 AIMD limit 을 따라감
+@Component
+public class UpstreamScheduler {
+
+    // 요약 같은 내부 작업은 사용자 한 명으로 취급해 공정 큐에서 한 몫만 차지 (사용자 ID 는 양수)
+    public static final Long BACKGROUND_USER = -1L;
+
+    private final UpstreamGuard upstreamGuard;
+    private final FairQueue<Ticket> queue;
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final Duration maxWait;
+    private final Timer waitTimer;
+    private final Counter userFullRejected;
+    private final Counter queueFullRejected;
+    private final Counter timeoutRejected;
+
+    private int inFlight;
+
+    public UpstreamScheduler(
+            UpstreamGuard upstreamGuard,
+            MeterRegistry meterRegistry,
+            @Value("${openai.scheduler.enabled:true}") boolean enabled,
+            @Value("${openai.scheduler.max-concurrency:200}") int maxConcurrency,
+            @Value("${openai.scheduler.quantum-tokens:1000}") int quantumTokens,
+            @Value("${openai.scheduler.max-queue-per-user:10}") int maxQueuePerUser,
+            @Value("${openai.scheduler.max-queue:1000}") int maxQueue,
+            @Value("${openai.scheduler.max-wait-ms:10000}") long maxWaitMs
+    ) {
+        this.upstreamGuard = upstreamGuard;
+        this.enabled = enabled;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxWait = Duration.ofMillis(Math.max(1, maxWaitMs));
+        this.queue = new FairQueue<>(quantumTokens, maxQueuePerUser, maxQueue);
+
+        Gauge.builder("openai.scheduler.queued", queue, FairQueue::size).register(meterRegistry);
+        Gauge.builder("openai.scheduler.users", queue, FairQueue::activeUsers)
+                .description("users with queued requests")
+                .register(meterRegistry);
+        Gauge.builder("openai.scheduler.inflight", this, UpstreamScheduler::inFlight).register(meterRegistry);
+        this.waitTimer = Timer.builder("openai.scheduler.wait").register(meterRegistry);
+        this.userFullRejected = Counter.builder("openai.scheduler.rejected").tag("reason", "user-queue-full").register(meterRegistry);
+        this.queueFullRejected = Counter.builder("openai.scheduler.rejected").tag("reason", "queue-full").register(meterRegistry);
+        this.timeoutRejected = Counter.builder("openai.scheduler.rejected").tag("reason", "timeout").register(meterRegistry);
+        if (enabled) {
+            upstreamGuard.onLimitRaised(this::dispatch);
+        }
+    }
+
+    public <T> Mono<T> schedule(Long userId, int cost, Supplier<Mono<T>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.usingWhen(acquire(userId, cost), ignored -> call.get(),
+                this::release, (ticket, error) -> release(ticket), this::release);
+    }
+
+    public <T> Flux<T> scheduleStream(Long userId, int cost, Supplier<Flux<T>> call) {
+        if (!enabled) {
+            return Flux.defer(call);
+        }
+        return Flux.usingWhen(acquire(userId, cost), ignored -> call.get(),
+                this::release, (ticket, error) -> release(ticket), this::release);
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private Mono<Ticket> acquire(Long userId, int cost) {
+        return Mono.<Ticket>create(sink -> {
+                    Ticket ticket = new Ticket(userId, sink, System.nanoTime());
+                    FairQueue.Offer offer = queue.offer(userId, cost, ticket);
+                    if (offer == FairQueue.Offer.USER_FULL) {
+                        userFullRejected.increment();
+                        sink.error(new RateLimitedException("Too many pending requests"));
+                        return;
+                    }
+                    if (offer == FairQueue.Offer.QUEUE_FULL) {
+                        queueFullRejected.increment();
+                        sink.error(new UpstreamException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.UPSTREAM_UNAVAILABLE, "OpenAI request queue full"));
+                        return;
+                    }
+                    sink.onCancel(() -> cancel(ticket));
+                    dispatch();
+                })
+                .timeout(maxWait, Mono.defer(() -> {
+                    timeoutRejected.increment();
+                    return Mono.error(new UpstreamException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.UPSTREAM_UNAVAILABLE, "OpenAI queue wait timeout"));
+                }));
+    }
+
+    // 슬롯이 빌 때마다 DRR 순서로 꺼내 시작. 구독자 신호는 락 밖에서 보냄
+    private void dispatch() {
+        List<Ticket> granted = new ArrayList<>();
+        synchronized (this) {
+            int limit = Math.min(maxConcurrency, upstreamGuard.currentLimit());
+            while (inFlight < limit) {
+                Ticket next = queue.poll();
+                if (next == null) {
+                    break;
+                }
+                next.granted = true;
+                inFlight++;
+                granted.add(next);
+            }
+        }
+        long now = System.nanoTime();
+        for (Ticket ticket : granted) {
+            waitTimer.record(now - ticket.enqueuedAt, TimeUnit.NANOSECONDS);
+            ticket.sink.success(ticket);
+        }
+    }
+
+    // 대기 중이면 큐에서 빼고, 타임아웃과 슬롯 할당이 겹쳤으면 슬롯 반환
+    private void cancel(Ticket ticket) {
+        synchronized (this) {
+            if (queue.remove(ticket.userId, ticket) || !ticket.granted) {
+                return;
+            }
+        }
+        releaseSlot(ticket);
+    }
+
+    private Mono<Void> release(Ticket ticket) {
+        return Mono.fromRunnable(() -> releaseSlot(ticket));
+    }
+
+    private void releaseSlot(Ticket ticket) {
+        if (!ticket.released.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            inFlight--;
+        }
+        dispatch();
+    }
+
+    private static final class Ticket {
+
+        private final Long userId;
+        private final MonoSink<Ticket> sink;
+        private final long enqueuedAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private boolean granted;
+
+        Ticket(Long userId, MonoSink<Ticket> sink, long enqueuedAt) {
+            this.userId = userId;
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
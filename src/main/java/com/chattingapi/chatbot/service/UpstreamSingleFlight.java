@@ -0,0 +1,60 @@
+package com.chattingapi.chatbot.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+@Component
+public class UpstreamSingleFlight {
+
+    private final ConcurrentMap<String, Mono<String>> calls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Flux<String>> streams = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    public UpstreamSingleFlight(@Value("${app.single-flight.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 같은 키로 진행 중인 호출이 있으면 그 결과를 공유. 끝나면(성공/실패) 바로 제거되어 다음 요청은 새로 호출
+    public Mono<String> join(String key, Supplier<Mono<String>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> calls.computeIfAbsent(key, k -> {
+            AtomicReference<Mono<String>> self = new AtomicReference<>();
+            self.set(Mono.defer(call)
+                    .doFinally(signal -> calls.remove(k, self.get()))
+                    .cache());
+            return self.get();
+        }));
+    }
+
+    // 늦게 합류한 구독자도 처음 토큰부터 받도록 replay. 모든 구독자가 떠나면 업스트림도 취소
+    public Flux<String> joinStream(String key, Supplier<Flux<String>> call) {
+        if (!enabled) {
+            return Flux.defer(call);
+        }
+        return Flux.defer(() -> streams.computeIfAbsent(key, k -> {
+            AtomicReference<Flux<String>> self = new AtomicReference<>();
+            self.set(Flux.defer(call)
+                    .doFinally(signal -> streams.remove(k, self.get()))
+                    .replay()
+                    .refCount());
+            return self.get();
+        }));
+    }
+
+    public int inFlight() {
+        return calls.size() + streams.size();
+    }
+}
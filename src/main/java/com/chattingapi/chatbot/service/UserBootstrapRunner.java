@@ -21,6 +21,7 @@ public class UserBootstrapRunner implements CommandLineRunner {
 
     private final UserRepository userRepository;
     private final ApiKeyHasher apiKeyHasher;
+    private final ApiKeyAuthCache apiKeyAuthCache;
     private final Environment environment;
 
     @Value("${app.bootstrap-user.enabled:false}")
@@ -51,6 +52,7 @@ public class UserBootstrapRunner implements CommandLineRunner {
             return;
         }
         userRepository.saveAndFlush(User.create(hashed));
+        apiKeyAuthCache.evictKey(hashed);
         log.info("Bootstrap user created: hashPrefix={}", preview);
     }
 }
@@ -18,6 +18,7 @@ public class UserRegistrationService {
 
     private final UserRepository userRepository;
     private final ApiKeyHasher apiKeyHasher;
+    private final ApiKeyAuthCache apiKeyAuthCache;
     private final SecureRandom secureRandom = new SecureRandom();
 
     @Transactional
@@ -31,6 +32,7 @@ public class UserRegistrationService {
             }
 
             User saved = userRepository.saveAndFlush(User.create(hashedApiKey));
+            apiKeyAuthCache.evictKey(hashedApiKey);
             return UserRegistrationResponse.of(saved.getId(), rawApiKey);
         }
 
@@ -0,0 +1,9 @@
+create table if not exists rate_limit_windows (
+    limiter_key varchar(64) not null,
+    window_start bigint not null,
+    used integer not null,
+    primary key (limiter_key, window_start)
+);
+
+create index if not exists idx_rate_limit_windows_start
+    on rate_limit_windows(window_start);
@@ -0,0 +1,3 @@
+alter sequence users_id_seq increment by 50;
+alter sequence conversations_id_seq increment by 50;
+alter sequence messages_id_seq increment by 50;
@@ -0,0 +1,10 @@
+create table if not exists conversation_summaries (
+    id bigserial primary key,
+    conversation_id bigint not null unique references conversations(id) on delete cascade,
+    content text not null,
+    covered_until timestamptz not null,
+    covered_message_id bigint not null,
+    updated_at timestamptz not null
+);
+
+alter sequence conversation_summaries_id_seq increment by 50;
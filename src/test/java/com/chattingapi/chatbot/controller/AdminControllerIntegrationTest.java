@@ -3,6 +3,8 @@ package com.chattingapi.chatbot.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.chattingapi.chatbot.repository.UserRepository;
+import com.chattingapi.chatbot.service.ApiKeyAuthCache;
+import com.chattingapi.chatbot.service.RateLimitService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +17,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -31,6 +34,12 @@ class AdminControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RateLimitService rateLimitService;
+
+    @Autowired
+    private ApiKeyAuthCache apiKeyAuthCache;
+
     private MockMvc mockMvc;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -38,6 +47,8 @@ class AdminControllerIntegrationTest {
     void setUp() {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
         userRepository.deleteAll();
+        rateLimitService.clearAll();
+        apiKeyAuthCache.clearAll();
     }
 
     @Test
@@ -72,4 +83,56 @@ class AdminControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true));
     }
+
+    @Test
+    void rotateAndRevoke_invalidateCachedApiKey() throws Exception {
+        MvcResult issued = mockMvc.perform(post("/api/admin/keys")
+                        .header("X-Admin-Key", ADMIN_KEY))
+                .andExpect(status().isOk())
+                .andReturn();
+        JsonNode root = objectMapper.readTree(issued.getResponse().getContentAsString());
+        Long userId = root.path("data").path("userId").asLong();
+        String issuedKey = root.path("data").path("apiKey").asText();
+
+        mockMvc.perform(get("/api/conversations").header("X-API-Key", issuedKey))
+                .andExpect(status().isOk());
+
+        MvcResult rotated = mockMvc.perform(post("/api/admin/keys/{userId}/rotate", userId)
+                        .header("X-Admin-Key", ADMIN_KEY))
+                .andExpect(status().isOk())
+                .andReturn();
+        String rotatedKey = objectMapper.readTree(rotated.getResponse().getContentAsString())
+                .path("data").path("apiKey").asText();
+
+        mockMvc.perform(get("/api/conversations").header("X-API-Key", issuedKey))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/conversations").header("X-API-Key", rotatedKey))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/admin/keys/{userId}", userId)
+                        .header("X-Admin-Key", ADMIN_KEY))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/conversations").header("X-API-Key", rotatedKey))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void jfrRecording_startStatusStop() throws Exception {
+        mockMvc.perform(post("/api/admin/jfr/start").header("X-Admin-Key", ADMIN_KEY)
+                        .param("settings", "default")
+                        .param("maxSeconds", "60"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.state").value("RUNNING"))
+                .andExpect(jsonPath("$.data.maxSeconds").value(60));
+
+        mockMvc.perform(post("/api/admin/jfr/start").header("X-Admin-Key", ADMIN_KEY))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/admin/jfr/stop").header("X-Admin-Key", ADMIN_KEY))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/jfr").header("X-Admin-Key", ADMIN_KEY))
+                .andExpect(status().isNotFound());
+    }
 }
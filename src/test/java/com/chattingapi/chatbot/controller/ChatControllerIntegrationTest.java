@@ -8,9 +8,11 @@ import com.chattingapi.chatbot.exception.UpstreamException;
 import com.chattingapi.chatbot.repository.ConversationRepository;
 import com.chattingapi.chatbot.repository.MessageRepository;
 import com.chattingapi.chatbot.repository.UserRepository;
+import com.chattingapi.chatbot.service.ApiKeyAuthCache;
 import com.chattingapi.chatbot.service.ApiKeyHasher;
 import com.chattingapi.chatbot.service.OpenAIService;
 import com.chattingapi.chatbot.service.RateLimitService;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,16 +22,22 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import reactor.core.publisher.Mono;
 
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -62,6 +70,9 @@ class ChatControllerIntegrationTest {
     @Autowired
     private RateLimitService rateLimitService;
 
+    @Autowired
+    private ApiKeyAuthCache apiKeyAuthCache;
+
     @MockitoBean
     private OpenAIService openAIService;
 
@@ -74,6 +85,7 @@ class ChatControllerIntegrationTest {
         conversationRepository.deleteAll();
         userRepository.deleteAll();
         rateLimitService.clearAll();
+        apiKeyAuthCache.clearAll();
 
         String hashed = apiKeyHasher.hash(USER_API_KEY);
         userRepository.save(User.create(hashed));
@@ -116,6 +128,44 @@ class ChatControllerIntegrationTest {
                 .andExpect(jsonPath("$.data.hasNext").value(true));
     }
 
+    @Test
+    void scrollConversations_followsCursor() throws Exception {
+        User user = userRepository.findByApiKey(apiKeyHasher.hash(USER_API_KEY)).orElseThrow();
+        conversationRepository.save(Conversation.create(user, "c1"));
+        conversationRepository.save(Conversation.create(user, "c2"));
+        conversationRepository.save(Conversation.create(user, "c3"));
+
+        MvcResult first = mockMvc.perform(get("/api/conversations/scroll")
+                        .header("X-API-Key", USER_API_KEY)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(2))
+                .andExpect(jsonPath("$.data.items[0].title").value("c3"))
+                .andExpect(jsonPath("$.data.hasNext").value(true))
+                .andExpect(jsonPath("$.data.total").doesNotExist())
+                .andReturn();
+        String cursor = JsonPath.read(first.getResponse().getContentAsString(), "$.data.nextCursor");
+
+        mockMvc.perform(get("/api/conversations/scroll")
+                        .header("X-API-Key", USER_API_KEY)
+                        .param("after", cursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(1))
+                .andExpect(jsonPath("$.data.items[0].title").value("c1"))
+                .andExpect(jsonPath("$.data.hasNext").value(false))
+                .andExpect(jsonPath("$.data.nextCursor").isEmpty());
+    }
+
+    @Test
+    void scrollConversations_invalidCursor_returns400() throws Exception {
+        mockMvc.perform(get("/api/conversations/scroll")
+                        .header("X-API-Key", USER_API_KEY)
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code").value("BAD_REQUEST"));
+    }
+
     @Test
     void getMessages_invalidConversationId_returns400() throws Exception {
         mockMvc.perform(get("/api/conversations/{id}/messages", 0)
@@ -158,9 +208,9 @@ class ChatControllerIntegrationTest {
 
     @Test
     void chat_whenUpstreamRateLimited_returns429() throws Exception {
-        when(openAIService.chat(anyList())).thenThrow(
+        when(openAIService.chat(anyList(), anyBoolean())).thenReturn(Mono.error(
                 new UpstreamException(HttpStatus.TOO_MANY_REQUESTS, ErrorCode.RATE_LIMITED, "OpenAI quota exceeded")
-        );
+        ));
 
         String body = """
                 {
@@ -168,17 +218,21 @@ class ChatControllerIntegrationTest {
                 }
                 """;
 
-        mockMvc.perform(post("/api/chat/completions")
+        MvcResult pending = mockMvc.perform(post("/api/chat/completions")
                         .header("X-API-Key", USER_API_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isTooManyRequests())
                 .andExpect(jsonPath("$.error.code").value("RATE_LIMITED"));
     }
 
     @Test
     void chat_whenUpstreamNetworkError_returns502() throws Exception {
-        when(openAIService.chat(anyList())).thenThrow(new UpstreamException("OpenAI API network error"));
+        when(openAIService.chat(anyList(), anyBoolean())).thenReturn(Mono.error(new UpstreamException("OpenAI API network error")));
 
         String body = """
                 {
@@ -186,14 +240,77 @@ class ChatControllerIntegrationTest {
                 }
                 """;
 
-        mockMvc.perform(post("/api/chat/completions")
+        MvcResult pending = mockMvc.perform(post("/api/chat/completions")
                         .header("X-API-Key", USER_API_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
                 .andExpect(status().isBadGateway())
                 .andExpect(jsonPath("$.error.code").value("UPSTREAM_ERROR"));
     }
 
+    @Test
+    void chat_returnsAssistantMessage() throws Exception {
+        when(openAIService.chat(anyList(), anyBoolean())).thenReturn(Mono.just("hi there"));
+
+        String body = """
+                {
+                  "message": "hello"
+                }
+                """;
+
+        MvcResult pending = mockMvc.perform(post("/api/chat/completions")
+                        .header("X-API-Key", USER_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.role").value("assistant"))
+                .andExpect(jsonPath("$.data.content").value("hi there"));
+    }
+
+    @Test
+    void chat_invalidApiKey_returns401Asynchronously() throws Exception {
+        String body = """
+                {
+                  "message": "hello"
+                }
+                """;
+
+        MvcResult pending = mockMvc.perform(post("/api/chat/completions")
+                        .header("X-API-Key", "wrong-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error.code").value("UNAUTHORIZED"));
+    }
+
+    @Test
+    void chatStream_invalidApiKey_returns401BeforeStreaming() throws Exception {
+        String body = """
+                {
+                  "message": "hello"
+                }
+                """;
+
+        mockMvc.perform(post("/api/chat/completions/stream")
+                        .header("X-API-Key", "wrong-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isUnauthorized());
+    }
+
     @Test
     void health_returnsUp() throws Exception {
         mockMvc.perform(get("/health"))
@@ -208,6 +325,13 @@ class ChatControllerIntegrationTest {
                 .andExpect(header().string("X-Request-Id", "trace-abc-123"));
     }
 
+    @Test
+    void requestTraceHeader_isGeneratedWhenMissing() throws Exception {
+        mockMvc.perform(get("/health"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Request-Id", matchesPattern("[0-9a-f]{32}")));
+    }
+
     @Test
     void getConversations_rateLimitExceeded_returns429() throws Exception {
         mockMvc.perform(get("/api/conversations").header("X-API-Key", USER_API_KEY))
@@ -0,0 +1,53 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = 1_000;
+
+    @Test
+    void rejectsBeyondLimitUntilReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, THRESHOLD, 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void shrinksOnSlowOrFailedCallsAndGrowsUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 10, THRESHOLD, 0.5);
+
+        limiter.onSample(THRESHOLD + 1, false);
+        assertEquals(4, limiter.limit());
+        limiter.onSample(1, true);
+        assertEquals(2, limiter.limit());
+        limiter.onSample(1, true);
+        assertEquals(2, limiter.limit());
+
+        limiter.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            limiter.onSample(1, false);
+        }
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void doesNotGrowWhileIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10, THRESHOLD, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(1, false);
+        }
+
+        assertEquals(4, limiter.limit());
+    }
+}
@@ -0,0 +1,62 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChatMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ChatMetrics metrics = new ChatMetrics(registry);
+
+    @Test
+    void upstreamLatencyIsTaggedByOutcome() {
+        metrics.upstream("default", Mono.just("ok")).block();
+        assertThrows(UpstreamException.class, () -> metrics.upstream("default", Mono.error(
+                new UpstreamException(HttpStatus.TOO_MANY_REQUESTS, ErrorCode.RATE_LIMITED, "OpenAI quota exceeded"))).block());
+
+        assertEquals(1, registry.get("openai.request").tags("type", "chat", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("openai.request").tags("type", "chat", "outcome", "rate-limited").timer().count());
+    }
+
+    @Test
+    void streamRecordsFirstTokenAndThroughput() {
+        metrics.upstreamStream("default", Flux.just("a", "b", "c")).blockLast();
+
+        assertEquals(1, registry.get("openai.stream.first-token").timer().count());
+        assertEquals(1, registry.get("openai.stream.tokens-per-second").summary().count());
+        assertEquals(1, registry.get("openai.request").tags("type", "stream", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void streamCloseIsCountedOnce() {
+        Runnable closed = metrics.streamOpened();
+        metrics.streamOpened();
+        assertEquals(2, registry.get("chat.sse.active").gauge().value());
+
+        closed.run();
+        closed.run();
+
+        assertEquals(1, registry.get("chat.sse.active").gauge().value());
+    }
+
+    @Test
+    void fixedTagMetersAreReused() {
+        metrics.db("load-context", () -> 1);
+        metrics.db("load-context", () -> 2);
+        metrics.fallback(ErrorCode.RATE_LIMITED);
+        metrics.fallback(ErrorCode.RATE_LIMITED);
+
+        assertEquals(2, registry.get("chat.db").tag("phase", "load-context").timer().count());
+        assertEquals(2, registry.get("openai.fallback").tag("reason", "rate-limited").counter().count());
+        assertSame(metrics.authLookup(), metrics.authLookup());
+    }
+}
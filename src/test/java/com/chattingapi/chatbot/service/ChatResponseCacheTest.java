@@ -0,0 +1,47 @@
+package com.chattingapi.chatbot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ChatResponseCacheTest {
+
+    @Test
+    void keyDependsOnModelTemperatureAndMessageBoundaries() {
+        List<Map<String, String>> messages = List.of(
+                Map.of("role", "user", "content", "ab"),
+                Map.of("role", "user", "content", "c")
+        );
+        List<Map<String, String>> shifted = List.of(
+                Map.of("role", "user", "content", "a"),
+                Map.of("role", "user", "content", "bc")
+        );
+
+        String key = ChatResponseCache.key("gpt-4o-mini", 0.7, messages);
+
+        assertEquals(key, ChatResponseCache.key("gpt-4o-mini", 0.7, List.copyOf(messages)));
+        assertNotEquals(key, ChatResponseCache.key("gpt-4o-mini", 0.7, shifted));
+        assertNotEquals(key, ChatResponseCache.key("gpt-4o", 0.7, messages));
+        assertNotEquals(key, ChatResponseCache.key("gpt-4o-mini", 0.2, messages));
+    }
+
+    @Test
+    void storesNonBlankResponses() {
+        ChatResponseCache cache = new ChatResponseCache(new SimpleMeterRegistry(), true, 1024 * 1024, 60);
+
+        cache.put("k1", "hello");
+        cache.put("k2", " ");
+
+        assertEquals("hello", cache.get("k1"));
+        assertNull(cache.get("k2"));
+
+        cache.clearAll();
+        assertNull(cache.get("k1"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContextAssemblerTest {
+
+    private final TokenCounter tokenCounter = new TokenCounter(new SimpleMeterRegistry(), "gpt-4o-mini", 100);
+
+    @Test
+    void countsTokensLocally() {
+        assertEquals(0, tokenCounter.count(""));
+        assertTrue(tokenCounter.count("hello world") > 0);
+        assertTrue(tokenCounter.count("hello world ".repeat(100)) > tokenCounter.count("hello world"));
+    }
+
+    @Test
+    void fillsBudgetFromNewestMessage() {
+        List<Message> history = List.of(
+                message(1, "old ".repeat(200)),
+                message(2, "short one"),
+                message(3, "short two")
+        );
+        int budget = tokenCounter.count(history.get(1)) + tokenCounter.count(history.get(2));
+
+        assertEquals(List.of(2L, 3L), ids(assembler(budget).assemble(history)));
+        assertEquals(List.of(1L, 2L, 3L), ids(assembler(10_000).assemble(history)));
+    }
+
+    @Test
+    void alwaysKeepsNewestMessage() {
+        List<Message> history = List.of(message(1, "a"), message(2, "long ".repeat(500)));
+
+        assertEquals(List.of(2L), ids(assembler(10).assemble(history)));
+    }
+
+    private ContextAssembler assembler(int maxTokens) {
+        ContextAssembler assembler = new ContextAssembler(tokenCounter);
+        ReflectionTestUtils.setField(assembler, "maxTokens", maxTokens);
+        return assembler;
+    }
+
+    private Message message(long id, String content) {
+        Message message = Message.of(null, "user", content);
+        ReflectionTestUtils.setField(message, "id", id);
+        return message;
+    }
+
+    private List<Long> ids(List<Message> messages) {
+        return messages.stream().map(Message::getId).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConversationContextCacheTest {
+
+    private final ConversationContextCache cache = new ConversationContextCache(new SimpleMeterRegistry(), 100, 600, 3);
+
+    @Test
+    void keepsMostRecentMessagesInOrder() {
+        cache.getOrLoad(1L, () -> List.of(message(1, "a"), message(2, "b")));
+
+        cache.append(1L, 2L, message(3, "c"));
+        cache.append(1L, 3L, message(4, "d"));
+
+        assertEquals(List.of("b", "c", "d"), contents(cache.getOrLoad(1L, List::of)));
+    }
+
+    @Test
+    void appendIgnoresUncachedConversationsAndDuplicates() {
+        cache.append(2L, null, message(1, "a"));
+        AtomicInteger loads = new AtomicInteger();
+
+        List<Message> loaded = cache.getOrLoad(2L, () -> {
+            loads.incrementAndGet();
+            return List.of(message(5, "e"));
+        });
+        cache.append(2L, null, message(5, "e"));
+
+        assertEquals(List.of("e"), contents(loaded));
+        assertEquals(List.of("e"), contents(cache.getOrLoad(2L, List::of)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void appendAfterMissedWriteFromAnotherInstanceForcesReload() {
+        cache.getOrLoad(4L, () -> List.of(message(1, "a"), message(2, "b")));
+
+        // 다른 인스턴스가 id 3 을 저장했으므로 이 인스턴스의 저장 직전 마지막 id 는 3
+        cache.append(4L, 3L, message(4, "d"));
+
+        assertEquals(List.of("b", "c", "d"), contents(cache.getOrLoad(4L,
+                () -> List.of(message(2, "b"), message(3, "c"), message(4, "d")))));
+    }
+
+    @Test
+    void evictForcesReload() {
+        cache.getOrLoad(3L, () -> List.of(message(1, "a")));
+        cache.evict(3L);
+
+        assertEquals(List.of("z"), contents(cache.getOrLoad(3L, () -> List.of(message(9, "z")))));
+    }
+
+    private Message message(long id, String content) {
+        Message message = Message.of(null, "user", content);
+        ReflectionTestUtils.setField(message, "id", id);
+        return message;
+    }
+
+    private List<String> contents(List<Message> messages) {
+        return messages.stream().map(Message::getContent).toList();
+    }
+}
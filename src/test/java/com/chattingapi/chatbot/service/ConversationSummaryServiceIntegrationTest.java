@@ -0,0 +1,98 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Conversation;
+import com.chattingapi.chatbot.entity.Message;
+import com.chattingapi.chatbot.entity.User;
+import com.chattingapi.chatbot.repository.ConversationRepository;
+import com.chattingapi.chatbot.repository.ConversationSummaryRepository;
+import com.chattingapi.chatbot.repository.MessageRepository;
+import com.chattingapi.chatbot.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "app.summary.enabled=true",
+        "app.summary.trigger-messages=4",
+        "app.summary.keep-recent=2"
+})
+@ActiveProfiles("test")
+class ConversationSummaryServiceIntegrationTest {
+
+    @Autowired
+    private ConversationSummaryService summaryService;
+
+    @Autowired
+    private ConversationSummaryRepository summaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @MockitoBean
+    private ConversationSummarizer summarizer;
+
+    private User user;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        summaryRepository.deleteAll();
+        messageRepository.deleteAll();
+        conversationRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = userRepository.save(User.create("summary-test-key"));
+        conversation = conversationRepository.save(Conversation.create(user, "long chat"));
+        for (int i = 1; i <= 6; i++) {
+            messageRepository.save(Message.of(conversation, i % 2 == 1 ? "user" : "assistant", "m" + i));
+        }
+    }
+
+    @Test
+    void compactsOlderTurnsAndKeepsRecentOnes() {
+        when(summarizer.summarize(isNull(), anyList())).thenReturn(Mono.just("summary of m1..m4"));
+
+        assertTrue(summaryService.compact(conversation.getId()).block());
+
+        ConversationSummaryService.Summary summary = summaryService.find(conversation.getId());
+        assertNotNull(summary);
+        assertEquals("summary of m1..m4", summary.content());
+        verify(summarizer).summarize(isNull(), anyList());
+
+        List<Message> history = messageRepository
+                .findByConversationIdAndConversationUserIdOrderByCreatedAtAsc(conversation.getId(), user.getId());
+        assertEquals(List.of("m5", "m6"), summary.uncovered(history).stream().map(Message::getContent).toList());
+        assertEquals("system", summary.toMessage().getRole());
+
+        assertFalse(summaryService.compact(conversation.getId()).block());
+    }
+
+    @Test
+    void skipsShortConversations() {
+        messageRepository.deleteAll();
+        messageRepository.save(Message.of(conversation, "user", "only"));
+
+        assertFalse(summaryService.compact(conversation.getId()).block());
+    }
+}
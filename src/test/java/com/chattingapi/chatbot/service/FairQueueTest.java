@@ -0,0 +1,78 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FairQueueTest {
+
+    @Test
+    void lightUserIsNotStarvedByHeavyUser() {
+        FairQueue<String> queue = new FairQueue<>(100, 20, 100);
+        for (int i = 0; i < 10; i++) {
+            queue.offer(1L, 100, "heavy-" + i);
+        }
+        queue.offer(2L, 100, "light-0");
+        queue.offer(2L, 100, "light-1");
+
+        List<String> order = drain(queue);
+
+        assertEquals(List.of("heavy-0", "light-0", "heavy-1", "light-1", "heavy-2"), order.subList(0, 5));
+    }
+
+    @Test
+    void costIsChargedAgainstQuantum() {
+        FairQueue<String> queue = new FairQueue<>(100, 20, 100);
+        queue.offer(1L, 300, "long-0");
+        queue.offer(1L, 300, "long-1");
+        for (int i = 0; i < 6; i++) {
+            queue.offer(2L, 100, "short-" + i);
+        }
+
+        List<String> order = drain(queue);
+
+        // 긴 프롬프트 1건이 나가는 동안 짧은 요청이 비용만큼 더 나감
+        assertEquals(List.of("short-0", "short-1", "long-0", "short-2", "short-3", "short-4", "long-1", "short-5"), order);
+    }
+
+    @Test
+    void rejectsWhenQueuesAreFull() {
+        FairQueue<String> queue = new FairQueue<>(100, 2, 3);
+
+        assertEquals(FairQueue.Offer.ACCEPTED, queue.offer(1L, 10, "a"));
+        assertEquals(FairQueue.Offer.ACCEPTED, queue.offer(1L, 10, "b"));
+        assertEquals(FairQueue.Offer.USER_FULL, queue.offer(1L, 10, "c"));
+        assertEquals(FairQueue.Offer.ACCEPTED, queue.offer(2L, 10, "d"));
+        assertEquals(FairQueue.Offer.QUEUE_FULL, queue.offer(3L, 10, "e"));
+    }
+
+    @Test
+    void removeDropsWaitingEntryOnly() {
+        FairQueue<String> queue = new FairQueue<>(100, 10, 10);
+        String first = "first";
+        String second = "second";
+        queue.offer(1L, 10, first);
+        queue.offer(1L, 10, second);
+
+        assertEquals(first, queue.poll());
+        assertFalse(queue.remove(1L, first));
+        assertTrue(queue.remove(1L, second));
+        assertEquals(0, queue.size());
+        assertEquals(0, queue.activeUsers());
+        assertNull(queue.poll());
+    }
+
+    private static List<String> drain(FairQueue<String> queue) {
+        List<String> order = new ArrayList<>();
+        for (String next = queue.poll(); next != null; next = queue.poll()) {
+            order.add(next);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,102 @@
+package com.chattingapi.chatbot.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HedgePolicyTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void slowPrimaryIsHedgedAndFasterResponseWins() {
+        HedgePolicy policy = new HedgePolicy(meterRegistry, true, 0.95, 10, 10, 50, 0.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.hedge(() -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofSeconds(5)).thenReturn("slow")
+                : Mono.just("fast")).block(Duration.ofSeconds(2));
+
+        assertEquals("fast", result);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("openai.hedge.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("openai.hedge.won").counter().count());
+    }
+
+    @Test
+    void hedgeBudgetCapsDuplicateRequests() {
+        HedgePolicy policy = new HedgePolicy(meterRegistry, true, 0.95, 10, 10, 50, 0.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            policy.hedge(() -> {
+                calls.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(50)).thenReturn("ok");
+            }).block(Duration.ofSeconds(2));
+        }
+
+        // 초기 예산 1회만 헤지되고 이후에는 1차 요청만 보냄
+        assertEquals(4, calls.get());
+        assertEquals(1.0, meterRegistry.get("openai.hedge.sent").counter().count());
+    }
+
+    @Test
+    void hedgeFailureDoesNotFailPrimary() {
+        HedgePolicy policy = new HedgePolicy(meterRegistry, true, 0.95, 10, 10, 50, 1.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.hedge(() -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(100)).thenReturn("primary")
+                : Mono.<String>error(new IllegalStateException("hedge failed"))).block(Duration.ofSeconds(2));
+
+        assertEquals("primary", result);
+        assertEquals(0.0, meterRegistry.get("openai.hedge.won").counter().count());
+    }
+
+    @Test
+    void primaryFailureFallsBackToHedgeInFlight() {
+        HedgePolicy policy = new HedgePolicy(meterRegistry, true, 0.95, 10, 10, 50, 1.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = policy.hedge(() -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(50)).then(Mono.<String>error(new IllegalStateException("primary failed")))
+                : Mono.delay(Duration.ofMillis(150)).thenReturn("hedge")).block(Duration.ofSeconds(2));
+
+        assertEquals("hedge", result);
+        assertEquals(1.0, meterRegistry.get("openai.hedge.won").counter().count());
+    }
+
+    @Test
+    void primaryFailureBeforeHedgeDelayFailsWithoutHedging() {
+        HedgePolicy policy = new HedgePolicy(meterRegistry, true, 0.95, 200, 200, 50, 1.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> policy.hedge(() -> {
+            calls.incrementAndGet();
+            return Mono.<String>error(new IllegalStateException("primary failed"));
+        }).block(Duration.ofMillis(100)));
+
+        assertEquals("primary failed", e.getMessage());
+        assertEquals(1, calls.get());
+        assertEquals(0.0, meterRegistry.get("openai.hedge.sent").counter().count());
+    }
+
+    @Test
+    void bothFailingSurfacesPrimaryError() {
+        HedgePolicy policy = new HedgePolicy(meterRegistry, true, 0.95, 10, 10, 50, 1.0);
+        AtomicInteger calls = new AtomicInteger();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> policy.hedge(() -> calls.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(50)).then(Mono.<String>error(new IllegalStateException("primary failed")))
+                : Mono.<String>error(new IllegalStateException("hedge failed"))).block(Duration.ofSeconds(2)));
+
+        assertEquals("primary failed", e.getMessage());
+        assertEquals(0.0, meterRegistry.get("openai.hedge.won").counter().count());
+    }
+}
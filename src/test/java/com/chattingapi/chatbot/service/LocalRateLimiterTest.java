@@ -0,0 +1,97 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimiterTest {
+
+    private static final long WINDOW_MS = 60_000;
+
+    @Test
+    void rejectsOnceLimitReachedWithinWindow() {
+        LocalRateLimiter limiter = new LocalRateLimiter(3, Duration.ofMillis(WINDOW_MS), 100);
+        long now = WINDOW_MS * 10;
+
+        assertTrue(limiter.tryAcquire("k", now));
+        assertTrue(limiter.tryAcquire("k", now + 1));
+        assertTrue(limiter.tryAcquire("k", now + 2));
+        assertFalse(limiter.tryAcquire("k", now + 3));
+        assertTrue(limiter.tryAcquire("other", now + 3));
+    }
+
+    @Test
+    void previousWindowIsWeightedByRemainingFraction() {
+        LocalRateLimiter limiter = new LocalRateLimiter(4, Duration.ofMillis(WINDOW_MS), 100);
+        long windowStart = WINDOW_MS * 10;
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire("k", windowStart + i));
+        }
+
+        long nextWindowStart = windowStart + WINDOW_MS;
+        assertFalse(limiter.tryAcquire("k", nextWindowStart));
+
+        long halfway = nextWindowStart + WINDOW_MS / 2;
+        assertTrue(limiter.tryAcquire("k", halfway));
+        assertTrue(limiter.tryAcquire("k", halfway));
+        assertFalse(limiter.tryAcquire("k", halfway));
+
+        assertTrue(limiter.tryAcquire("k", windowStart + WINDOW_MS * 3));
+    }
+
+    @Test
+    void grantsExactlyLimitUnderContention() throws Exception {
+        LocalRateLimiter limiter = new LocalRateLimiter(500, Duration.ofMillis(WINDOW_MS), 100);
+        long now = WINDOW_MS * 10;
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("hot", now)) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(500, granted.get());
+    }
+
+    @Test
+    void acceptsMaxPermitsAndGrantsThemAll() {
+        LocalRateLimiter limiter = new LocalRateLimiter(LocalRateLimiter.MAX_PERMITS, Duration.ofMillis(WINDOW_MS), 100);
+        long now = WINDOW_MS * 10;
+        for (int i = 0; i < LocalRateLimiter.MAX_PERMITS; i++) {
+            assertTrue(limiter.tryAcquire("k", now));
+        }
+        assertFalse(limiter.tryAcquire("k", now));
+    }
+
+    @Test
+    void rejectsPermitsAboveMax() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new LocalRateLimiter(LocalRateLimiter.MAX_PERMITS + 1, Duration.ofMillis(WINDOW_MS), 100));
+        assertTrue(error.getMessage().contains("app.rate-limit.requests-per-window"));
+    }
+}
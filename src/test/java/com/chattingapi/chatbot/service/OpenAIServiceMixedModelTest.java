@@ -0,0 +1,88 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import com.chattingapi.chatbot.support.MockOpenAiServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 엔드포인트마다 모델이 다르면 한 모델의 응답을 다른 모델 요청에 재사용하지 않아야 함
+@SpringBootTest
+@ActiveProfiles("test")
+class OpenAIServiceMixedModelTest {
+
+    private static final MockOpenAiServer.Settings SLOW = MockOpenAiServer.Settings.defaults()
+            .withLatency(200, 1)
+            .withTokens(3);
+
+    private static final MockOpenAiServer mock = startMock();
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @DynamicPropertySource
+    static void openAiProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.response-cache.enabled", () -> true);
+        registry.add("app.single-flight.enabled", () -> true);
+        registry.add("openai.endpoints[0].name", () -> "primary");
+        registry.add("openai.endpoints[0].base-url", mock::baseUrl);
+        registry.add("openai.endpoints[0].api-key", () -> "mock");
+        registry.add("openai.endpoints[0].model", () -> "gpt-4o-mini");
+        registry.add("openai.endpoints[1].name", () -> "secondary");
+        registry.add("openai.endpoints[1].base-url", mock::baseUrl);
+        registry.add("openai.endpoints[1].api-key", () -> "mock");
+        registry.add("openai.endpoints[1].model", () -> "gpt-4o");
+    }
+
+    @AfterAll
+    static void stopMock() {
+        mock.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mock.settings(SLOW);
+        mock.resetRequests();
+    }
+
+    @Test
+    void sameContext_isNotCachedAcrossModels() {
+        List<Message> context = List.of(Message.of(null, "user", "same question"));
+
+        openAIService.chat(context).block();
+        openAIService.chat(context).block();
+
+        assertEquals(2, mock.requests());
+    }
+
+    @Test
+    void concurrentSameContext_isNotSingleFlightedAcrossModels() {
+        List<Message> context = List.of(Message.of(null, "user", "concurrent question"));
+
+        CompletableFuture<String> first = openAIService.chat(context).toFuture();
+        CompletableFuture<String> second = openAIService.chat(context).toFuture();
+        CompletableFuture.allOf(first, second).join();
+
+        assertEquals(2, mock.requests());
+    }
+
+    private static MockOpenAiServer startMock() {
+        try {
+            return MockOpenAiServer.start(SLOW);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
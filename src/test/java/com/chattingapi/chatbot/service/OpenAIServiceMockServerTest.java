@@ -0,0 +1,103 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.entity.Message;
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import com.chattingapi.chatbot.support.MockOpenAiServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// 실제 WebClient/커넥션 풀/SSE 디코더를 거쳐 목 서버와 통신
+@SpringBootTest
+@ActiveProfiles("test")
+class OpenAIServiceMockServerTest {
+
+    private static final MockOpenAiServer.Settings FAST = MockOpenAiServer.Settings.defaults()
+            .withLatency(5, 1)
+            .withTokens(3);
+
+    private static final MockOpenAiServer mock = startMock();
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @DynamicPropertySource
+    static void openAiProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.base-url", mock::baseUrl);
+        registry.add("openai.retry-delay-ms", () -> 10);
+    }
+
+    @AfterAll
+    static void stopMock() {
+        mock.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        mock.settings(FAST);
+        mock.resetRequests();
+    }
+
+    @Test
+    void chat_returnsCompletion() {
+        String content = openAIService.chat(context("hello")).block();
+
+        assertEquals("tok0 tok1 tok2", content);
+        assertEquals(1, mock.requests());
+    }
+
+    @Test
+    void chatStream_emitsTokensInOrder() {
+        List<String> tokens = openAIService.chatStream(context("stream please")).collectList().block();
+
+        assertEquals(List.of("tok0", " tok1", " tok2"), tokens);
+    }
+
+    @Test
+    void rateLimited_retriesAfterHintThenFails() {
+        mock.settings(FAST.withRateLimit(1.0, 20));
+
+        UpstreamException e = assertThrows(UpstreamException.class,
+                () -> openAIService.chat(context("rate limited")).block());
+
+        assertEquals(ErrorCode.RATE_LIMITED, e.getErrorCode());
+        // openai.max-retries 기본값 2
+        assertEquals(3, mock.requests());
+    }
+
+    @Test
+    void serverErrors_areRetriedThenSurfaced() {
+        mock.settings(FAST.withErrorRate(1.0));
+
+        UpstreamException e = assertThrows(UpstreamException.class,
+                () -> openAIService.chat(context("server error")).block());
+
+        assertEquals(ErrorCode.UPSTREAM_ERROR, e.getErrorCode());
+        assertEquals(3, mock.requests());
+    }
+
+    private static List<Message> context(String text) {
+        return List.of(Message.of(null, "user", text));
+    }
+
+    private static MockOpenAiServer startMock() {
+        try {
+            return MockOpenAiServer.start(FAST);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OpenAiSseDecoderTest {
+
+    private final OpenAiSseDecoder decoder = new OpenAiSseDecoder();
+
+    @Test
+    void decodesDeltaContentAndStopsAtDone() {
+        String stream = """
+                data: {"id":"1","choices":[{"index":0,"delta":{"role":"assistant","content":"Hel"}}]}
+
+                data: {"id":"2","choices":[{"index":0,"delta":{"content":"lo"}}]}
+
+                data: [DONE]
+
+                data: {"choices":[{"delta":{"content":"ignored"}}]}
+                """;
+
+        assertEquals(List.of("Hel", "lo"), decode(chunks(stream, 7)));
+    }
+
+    @Test
+    void skipsUnrelatedFieldsAndNestedValues() {
+        String stream = "data: {\"meta\":{\"a\":[1,{\"content\":\"x\"}]},\"choices\":[{\"logprobs\":null,"
+                + "\"delta\":{\"tool\":{\"content\":\"nested\"},\"content\":\"ok\"}}]}\r\n\r\n"
+                + ": keep-alive\r\n"
+                + "data: {\"choices\":[{\"delta\":{}}]}\r\n"
+                + "data: not-json\r\n";
+
+        assertEquals(List.of("ok"), decode(chunks(stream, 5)));
+    }
+
+    @Test
+    void handlesMultiByteCharactersSplitAcrossChunks() {
+        String stream = "data: {\"choices\":[{\"delta\":{\"content\":\"안녕하세요\"}}]}\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"반가워요\"}}]}";
+
+        assertEquals(List.of("안녕하세요", "반가워요"), decode(chunks(stream, 3)));
+    }
+
+    private List<String> decode(List<byte[]> chunks) {
+        Flux<DataBuffer> body = Flux.fromIterable(chunks)
+                .map(bytes -> DefaultDataBufferFactory.sharedInstance.wrap(bytes));
+        return decoder.decode(body).collectList().block();
+    }
+
+    private List<byte[]> chunks(String stream, int size) {
+        byte[] bytes = stream.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> result = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += size) {
+            result.add(Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + size)));
+        }
+        return result;
+    }
+}
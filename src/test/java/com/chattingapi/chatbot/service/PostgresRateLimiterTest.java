@@ -0,0 +1,191 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostgresRateLimiterTest {
+
+    private static final long WINDOW_MS = 60_000;
+    private static final long NOW = WINDOW_MS * 1000 + 10;
+    private static final long STALE_AFTER_MS = 3000;
+
+    private final ApiKeyHasher hasher = new ApiKeyHasher();
+    private final FakeJdbcTemplate db = new FakeJdbcTemplate();
+
+    // 마지막 동기화 성공 시각을 NOW 로 맞춰 둠
+    private PostgresRateLimiter limiter(int requestsPerWindow, int localPermits) {
+        PostgresRateLimiter limiter = new PostgresRateLimiter(db, hasher, requestsPerWindow, WINDOW_MS / 1000, localPermits, STALE_AFTER_MS);
+        limiter.sync(NOW);
+        return limiter;
+    }
+
+    @Test
+    void localPermitsCapAdmissionBetweenSyncs() {
+        PostgresRateLimiter limiter = limiter(100, 3);
+
+        assertTrue(limiter.tryAcquire("k", NOW));
+        assertTrue(limiter.tryAcquire("k", NOW));
+        assertTrue(limiter.tryAcquire("k", NOW));
+        assertFalse(limiter.tryAcquire("k", NOW));
+
+        limiter.sync(NOW + 1);
+
+        assertTrue(limiter.tryAcquire("k", NOW + 2));
+    }
+
+    @Test
+    void globalUsageFromOtherInstancesIsEnforced() {
+        PostgresRateLimiter limiter = limiter(5, 10);
+        assertTrue(limiter.tryAcquire("k", NOW));
+        db.used.put(hasher.hash("k"), 4);
+
+        limiter.sync(NOW + 1);
+
+        assertFalse(limiter.tryAcquire("k", NOW + 2));
+    }
+
+    @Test
+    void syncBatchesAllKeysIntoOneUpsert() {
+        PostgresRateLimiter limiter = limiter(100, 10);
+        limiter.tryAcquire("a", NOW);
+        limiter.tryAcquire("a", NOW);
+        limiter.tryAcquire("b", NOW);
+
+        limiter.sync(NOW + 1);
+
+        assertEquals(1, db.batchCalls);
+        assertEquals(2, db.upsertedRows);
+        assertEquals(2, db.used.get(hasher.hash("a")));
+        assertEquals(1, db.used.get(hasher.hash("b")));
+
+        limiter.sync(NOW + 2);
+
+        assertEquals(1, db.batchCalls);
+    }
+
+    @Test
+    void upsertFailureKeepsDeltasAndFallsBackToLocalWhenStale() {
+        PostgresRateLimiter limiter = limiter(100, 10);
+        limiter.tryAcquire("k", NOW);
+        limiter.tryAcquire("k", NOW);
+        db.failUpsert = true;
+
+        limiter.sync(NOW + 1);
+
+        assertTrue(limiter.isHealthy(NOW + 1));
+        assertFalse(limiter.isHealthy(NOW + STALE_AFTER_MS + 1));
+
+        db.failUpsert = false;
+        limiter.sync(NOW + STALE_AFTER_MS + 2);
+
+        assertEquals(2, db.used.get(hasher.hash("k")));
+        assertTrue(limiter.isHealthy(NOW + STALE_AFTER_MS + 2));
+    }
+
+    @Test
+    void refreshFailureAfterUpsertDoesNotCountTwice() {
+        PostgresRateLimiter limiter = limiter(100, 10);
+        limiter.tryAcquire("k", NOW);
+        limiter.tryAcquire("k", NOW);
+        db.failQuery = true;
+
+        limiter.sync(NOW + 1);
+
+        assertEquals(2, db.used.get(hasher.hash("k")));
+        assertFalse(limiter.isHealthy(NOW + STALE_AFTER_MS + 1));
+
+        db.failQuery = false;
+        limiter.sync(NOW + 2);
+
+        assertEquals(2, db.used.get(hasher.hash("k")));
+    }
+
+    @Test
+    void cleanupFailureDoesNotCountTwice() {
+        db.failCleanup = true;
+        PostgresRateLimiter limiter = limiter(100, 10);
+        limiter.tryAcquire("k", NOW);
+
+        limiter.sync(NOW + 1);
+        limiter.sync(NOW + 2);
+
+        assertEquals(1, db.used.get(hasher.hash("k")));
+        assertTrue(limiter.isHealthy(NOW + 2));
+    }
+
+    // rate_limit_windows 를 현재 윈도우 한 개만 가진 메모리 맵으로 흉내
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+
+        private final Map<String, Integer> used = new HashMap<>();
+        private int batchCalls;
+        private int upsertedRows;
+        private boolean failUpsert;
+        private boolean failQuery;
+        private boolean failCleanup;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) throws DataAccessException {
+            if (failUpsert) {
+                throw new DataAccessResourceFailureException("upsert failed");
+            }
+            batchCalls++;
+            upsertedRows += batchArgs.size();
+            for (Object[] args : batchArgs) {
+                used.merge((String) args[0], (Integer) args[2], Integer::sum);
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        public void query(String sql, PreparedStatementSetter pss, RowCallbackHandler rch) throws DataAccessException {
+            if (failQuery) {
+                throw new DataAccessResourceFailureException("query failed");
+            }
+            for (Map.Entry<String, Integer> row : new ArrayList<>(used.entrySet())) {
+                try {
+                    rch.processRow(new Row(row.getKey(), row.getValue()).resultSet());
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        public int update(String sql, Object... args) throws DataAccessException {
+            if (failCleanup) {
+                throw new DataAccessResourceFailureException("cleanup failed");
+            }
+            return 0;
+        }
+    }
+
+    private record Row(String key, int used) {
+
+        ResultSet resultSet() {
+            return (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getString" -> key;
+                        case "getInt" -> used;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
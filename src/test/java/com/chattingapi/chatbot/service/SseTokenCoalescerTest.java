@@ -0,0 +1,54 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SseTokenCoalescerTest {
+
+    private final SseTokenCoalescer coalescer = new SseTokenCoalescer();
+
+    @Test
+    void firstTokenPassesThroughAndRestIsBatchedByBytes() {
+        configure(true, 10_000, 4);
+
+        List<String> emitted = coalescer.coalesce(Flux.just("a", "bb", "cc", "d", "eeee", "f"))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("a", "bbcc", "deeee", "f"), emitted);
+    }
+
+    @Test
+    void pendingTokensAreFlushedAfterMaxDelay() {
+        configure(true, 20, 1024);
+
+        List<String> emitted = coalescer.coalesce(Flux.just("a", "b", "c").concatWith(Flux.just("d").delaySubscription(Duration.ofMillis(200))))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("a", "bc", "d"), emitted);
+    }
+
+    @Test
+    void disabledCoalescingEmitsEveryToken() {
+        configure(false, 20, 256);
+
+        List<String> emitted = coalescer.coalesce(Flux.just("a", "b", "c"))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("a", "b", "c"), emitted);
+    }
+
+    private void configure(boolean enabled, long maxDelayMs, int maxBytes) {
+        ReflectionTestUtils.setField(coalescer, "enabled", enabled);
+        ReflectionTestUtils.setField(coalescer, "maxDelayMs", maxDelayMs);
+        ReflectionTestUtils.setField(coalescer, "maxBytes", maxBytes);
+    }
+}
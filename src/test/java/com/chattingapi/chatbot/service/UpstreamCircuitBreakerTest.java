@@ -0,0 +1,60 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamCircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000;
+
+    private final UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(10, 4, 50, OPEN_NANOS, 2);
+
+    @Test
+    void opensWhenFailureRateExceedsThreshold() {
+        breaker.onSuccess();
+        breaker.onFailure(0);
+        breaker.onSuccess();
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.state());
+
+        breaker.onFailure(0);
+
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(OPEN_NANOS - 1));
+    }
+
+    @Test
+    void halfOpenClosesAfterTrialSuccesses() {
+        openBreaker();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        assertFalse(breaker.tryAcquire(OPEN_NANOS));
+        assertEquals(UpstreamCircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+    }
+
+    @Test
+    void halfOpenFailureReopens() {
+        openBreaker();
+
+        assertTrue(breaker.tryAcquire(OPEN_NANOS));
+        breaker.onFailure(OPEN_NANOS);
+
+        assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire(OPEN_NANOS + 1));
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure(0);
+        }
+    }
+}
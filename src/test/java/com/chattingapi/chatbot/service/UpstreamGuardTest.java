@@ -0,0 +1,63 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamGuardTest {
+
+    // 동시성 제한 끄고, 최근 4건 중 50% 이상 실패하면 열리는 서킷
+    private final UpstreamGuard guard = new UpstreamGuard(new SimpleMeterRegistry(),
+            false, 20, 2, 200, 15_000, 0.9,
+            true, 4, 4, 50, 30, 1);
+
+    @Test
+    void clientErrorsDoNotOpenCircuit() {
+        for (int code : new int[]{400, 401, 404, 400, 401, 404}) {
+            fail(UpstreamException.response(code, "OpenAI API error: " + code, null));
+        }
+
+        assertEquals("ok", guard.guard(Mono.just("ok")).block());
+    }
+
+    @Test
+    void serverErrorsAndTimeoutsOpenCircuit() {
+        fail(UpstreamException.response(500, "OpenAI API error: 500", null));
+        fail(UpstreamException.response(503, "OpenAI API error: 503", null));
+        fail(UpstreamException.timeout("OpenAI API timeout"));
+        fail(UpstreamException.network("OpenAI API network error"));
+
+        UpstreamException rejected = assertThrows(UpstreamException.class, () -> guard.guard(Mono.just("ok")).block());
+        assertEquals(ErrorCode.UPSTREAM_UNAVAILABLE, rejected.getErrorCode());
+    }
+
+    @Test
+    void limitBacksOffOnlyOnTimeoutsAndServerErrors() {
+        UpstreamGuard limited = new UpstreamGuard(new SimpleMeterRegistry(),
+                true, 20, 2, 200, 15_000, 0.5,
+                false, 4, 4, 50, 30, 1);
+
+        fail(limited, UpstreamException.response(400, "OpenAI API error: 400", null));
+        fail(limited, UpstreamException.response(429, "OpenAI quota exceeded", null));
+        fail(limited, UpstreamException.network("OpenAI API network error"));
+        assertEquals(20, limited.currentLimit());
+
+        fail(limited, UpstreamException.response(500, "OpenAI API error: 500", null));
+        assertEquals(10, limited.currentLimit());
+        fail(limited, UpstreamException.timeout("OpenAI API timeout"));
+        assertEquals(5, limited.currentLimit());
+    }
+
+    private void fail(UpstreamException error) {
+        fail(guard, error);
+    }
+
+    private static void fail(UpstreamGuard guard, UpstreamException error) {
+        assertThrows(UpstreamException.class, () -> guard.guard(Mono.error(error)).block());
+    }
+}
@@ -0,0 +1,126 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamRetryPolicyTest {
+
+    @Test
+    void parsesRetryHintsAndUsesTheLongest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "2");
+        headers.add("x-ratelimit-reset-requests", "1m0.5s");
+        headers.add("x-ratelimit-reset-tokens", "20ms");
+
+        assertEquals(Duration.ofMillis(60_500), UpstreamRetryPolicy.retryAfter(headers));
+        assertNull(UpstreamRetryPolicy.retryAfter(new HttpHeaders()));
+    }
+
+    @Test
+    void delayUsesFullJitterWithinCapAndRespectsRetryAfter() {
+        UpstreamRetryPolicy policy = new UpstreamRetryPolicy(new SimpleMeterRegistry(), 5, 100, 400, 10_000, true);
+        UpstreamException hinted = UpstreamException.response(429, "limited", Duration.ofMillis(900));
+
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.delayMillis(4, UpstreamException.response(500, "boom", null));
+            assertTrue(delay >= 0 && delay <= 400);
+            assertTrue(policy.delayMillis(1, hinted) >= 900);
+        }
+    }
+
+    @Test
+    void retriesOnlyTransientErrorsAndRateLimitsWithHint() {
+        UpstreamRetryPolicy policy = new UpstreamRetryPolicy(new SimpleMeterRegistry(), 2, 1, 10, 10_000, true);
+
+        assertTrue(policy.isRetryable(UpstreamException.response(500, "boom", null)));
+        assertTrue(policy.isRetryable(UpstreamException.response(503, "unavailable", null)));
+        assertTrue(policy.isRetryable(UpstreamException.timeout("timeout")));
+        assertTrue(policy.isRetryable(UpstreamException.network("network")));
+        assertTrue(policy.isRetryable(UpstreamException.failover("other endpoint")));
+        assertFalse(policy.isRetryable(UpstreamException.response(400, "bad request", null)));
+        assertFalse(policy.isRetryable(UpstreamException.response(401, "unauthorized", null)));
+        assertFalse(policy.isRetryable(UpstreamException.response(404, "not found", null)));
+        assertFalse(policy.isRetryable(new UpstreamException("OpenAI API invalid response format")));
+        assertFalse(policy.isRetryable(UpstreamException.response(429, "quota", null)));
+        assertTrue(policy.isRetryable(UpstreamException.response(429, "limited", Duration.ofMillis(5))));
+        assertFalse(policy.isRetryable(new UpstreamException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.UPSTREAM_UNAVAILABLE, "open")));
+    }
+
+    @Test
+    void retriesUntilSuccessWithinAttempts() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamRetryPolicy policy = new UpstreamRetryPolicy(registry, 2, 1, 10, 10_000, true);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = Mono.defer(() -> calls.incrementAndGet() < 3
+                        ? Mono.<String>error(UpstreamException.response(500, "boom", null))
+                        : Mono.just("ok"))
+                .retryWhen(policy.retry("test", () -> true))
+                .block(Duration.ofSeconds(2));
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, registry.get("openai.retry").tag("op", "test").counter().count());
+    }
+
+    @Test
+    void stopsWhenRetryHintExceedsDeadline() {
+        UpstreamRetryPolicy policy = new UpstreamRetryPolicy(new SimpleMeterRegistry(), 5, 1, 10, 100, true);
+        AtomicInteger calls = new AtomicInteger();
+        UpstreamException limited = UpstreamException.response(429, "limited", Duration.ofSeconds(30));
+
+        UpstreamException thrown = assertThrows(UpstreamException.class, () -> Mono.defer(() -> {
+                    calls.incrementAndGet();
+                    return Mono.<String>error(limited);
+                })
+                .retryWhen(policy.retry("test", () -> true))
+                .block(Duration.ofSeconds(2)));
+
+        assertEquals(ErrorCode.RATE_LIMITED, thrown.getErrorCode());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        UpstreamRetryPolicy policy = new UpstreamRetryPolicy(new SimpleMeterRegistry(), 5, 1, 10, 10_000, true);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(UpstreamException.class, () -> Mono.defer(() -> {
+                    calls.incrementAndGet();
+                    return Mono.<String>error(UpstreamException.response(400, "bad request", null));
+                })
+                .retryWhen(policy.retry("test", () -> true))
+                .block(Duration.ofSeconds(2)));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void doesNotRetryWhenNotAllowed() {
+        UpstreamRetryPolicy policy = new UpstreamRetryPolicy(new SimpleMeterRegistry(), 5, 1, 10, 10_000, true);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(UpstreamException.class, () -> Mono.defer(() -> {
+                    calls.incrementAndGet();
+                    return Mono.<String>error(UpstreamException.response(500, "boom", null));
+                })
+                .retryWhen(policy.retry("stream", () -> false))
+                .block(Duration.ofSeconds(2)));
+
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,139 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamRouterTest {
+
+    private static UpstreamEndpoint endpoint(String name, int weight) {
+        return new UpstreamEndpoint(name, "http://" + name, null, "key-" + name, "gpt-4o-mini", weight);
+    }
+
+    private static UpstreamRouter router(UpstreamEndpoint... endpoints) {
+        return new UpstreamRouter(List.of(endpoints), 2, Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+
+    private static UpstreamException rateLimited(Duration retryAfter) {
+        return UpstreamException.response(429, "OpenAI quota exceeded", retryAfter);
+    }
+
+    @Test
+    void prefersFasterEndpoint() {
+        UpstreamEndpoint fast = endpoint("fast", 1);
+        UpstreamEndpoint slow = endpoint("slow", 1);
+        for (int i = 0; i < 20; i++) {
+            fast.onSuccess(TimeUnit.MILLISECONDS.toNanos(100));
+            slow.onSuccess(TimeUnit.MILLISECONDS.toNanos(2000));
+        }
+        UpstreamRouter router = router(fast, slow);
+
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            picks.merge(router.select().getName(), 1, Integer::sum);
+        }
+
+        // 두 후보가 모두 slow 일 때만 slow 선택 (약 1/4)
+        assertTrue(picks.getOrDefault("fast", 0) > 650);
+    }
+
+    @Test
+    void rateLimitEjectsEndpointAndFailsOver() {
+        UpstreamEndpoint primary = endpoint("primary", 1);
+        UpstreamEndpoint secondary = endpoint("secondary", 1);
+        UpstreamRouter router = router(primary, secondary);
+
+        // primary 가 선택될 때까지 반복. 429 는 다른 엔드포인트가 있으므로 재시도 가능한 오류로 바뀜
+        UpstreamException failure = null;
+        for (int i = 0; i < 100 && failure == null; i++) {
+            try {
+                router.route(e -> e == primary ? Mono.error(rateLimited(null)) : Mono.just(e.getName())).block();
+            } catch (UpstreamException e) {
+                failure = e;
+            }
+        }
+
+        assertEquals(ErrorCode.UPSTREAM_ERROR, failure.getErrorCode());
+        assertFalse(primary.isAvailable(System.nanoTime()));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("secondary", router.select().getName());
+        }
+    }
+
+    @Test
+    void rateLimitPropagatesWhenNoOtherEndpointAvailable() {
+        UpstreamEndpoint only = endpoint("only", 1);
+        UpstreamRouter router = router(only);
+
+        UpstreamException failure = assertThrows(UpstreamException.class,
+                () -> router.route(e -> Mono.error(rateLimited(Duration.ofSeconds(5)))).block());
+
+        assertEquals(ErrorCode.RATE_LIMITED, failure.getErrorCode());
+
+        assertTrue(router.stats().get(0).ejected());
+        assertEquals("only", router.select().getName());
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailures() {
+        UpstreamEndpoint flaky = endpoint("flaky", 1);
+        UpstreamEndpoint healthy = endpoint("healthy", 1);
+        UpstreamRouter router = router(flaky, healthy);
+
+        router.onFailure(flaky, UpstreamException.network("OpenAI API network error"));
+        assertTrue(flaky.isAvailable(System.nanoTime()));
+
+        router.onFailure(flaky, UpstreamException.network("OpenAI API network error"));
+        assertFalse(flaky.isAvailable(System.nanoTime()));
+    }
+
+    @Test
+    void clientErrorsDoNotCountTowardEjection() {
+        UpstreamEndpoint endpoint = endpoint("a", 1);
+        UpstreamRouter router = router(endpoint, endpoint("b", 1));
+
+        router.onFailure(endpoint, UpstreamException.response(400, "OpenAI API error: 400", null));
+        router.onFailure(endpoint, UpstreamException.response(401, "OpenAI API error: 401", null));
+        router.onFailure(endpoint, UpstreamException.response(404, "OpenAI API error: 404", null));
+
+        assertTrue(endpoint.isAvailable(System.nanoTime()));
+        assertEquals(0, endpoint.stats(System.nanoTime()).failures());
+
+        router.onFailure(endpoint, UpstreamException.response(500, "OpenAI API error: 500", null));
+        router.onFailure(endpoint, UpstreamException.timeout("OpenAI API timeout"));
+        assertFalse(endpoint.isAvailable(System.nanoTime()));
+    }
+
+    @Test
+    void ejectedEndpointReturnsAfterDeadline() {
+        UpstreamEndpoint endpoint = endpoint("a", 1);
+        long now = System.nanoTime();
+        endpoint.eject(now + 1_000);
+
+        assertFalse(endpoint.isAvailable(now));
+        assertTrue(endpoint.isAvailable(now + 1_000));
+    }
+
+    @Test
+    void sharedModelIsNullWhenEndpointsUseDifferentModels() {
+        UpstreamEndpoint primary = endpoint("primary", 1);
+        UpstreamEndpoint other = new UpstreamEndpoint("other", "http://other", null, "key-other", "gpt-4o", 1);
+
+        assertEquals("gpt-4o-mini", router(primary, endpoint("secondary", 1)).sharedModel());
+        assertNull(router(primary, other).sharedModel());
+    }
+}
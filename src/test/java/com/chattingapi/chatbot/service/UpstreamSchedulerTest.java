@@ -0,0 +1,170 @@
+package com.chattingapi.chatbot.service;
+
+import com.chattingapi.chatbot.exception.ErrorCode;
+import com.chattingapi.chatbot.exception.RateLimitedException;
+import com.chattingapi.chatbot.exception.UpstreamException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamSchedulerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 서킷 브레이커는 끄고 AIMD limit 만 사용
+    private static UpstreamGuard guard(int initialLimit) {
+        return new UpstreamGuard(new SimpleMeterRegistry(),
+                true, initialLimit, 1, 10, 15_000, 0.5,
+                false, 4, 4, 50, 30, 1);
+    }
+
+    private UpstreamScheduler scheduler(UpstreamGuard guard, int maxQueuePerUser, int maxQueue, long maxWaitMs) {
+        return new UpstreamScheduler(guard, meterRegistry, true, 10, 1000, maxQueuePerUser, maxQueue, maxWaitMs);
+    }
+
+    @Test
+    void releasesSlotOnCompletionErrorAndCancel() {
+        UpstreamScheduler scheduler = scheduler(guard(1), 10, 100, 5_000);
+
+        assertEquals("ok", scheduler.schedule(1L, 1, () -> Mono.just("ok")).block(TIMEOUT));
+        assertEquals(0, scheduler.inFlight());
+
+        assertThrows(IllegalStateException.class, () -> scheduler.schedule(1L, 1,
+                () -> Mono.<String>error(new IllegalStateException("boom"))).block(TIMEOUT));
+        assertEquals(0, scheduler.inFlight());
+
+        Disposable held = scheduler.schedule(1L, 1, () -> Mono.<String>never()).subscribe();
+        assertEquals(1, scheduler.inFlight());
+        held.dispose();
+        assertEquals(0, scheduler.inFlight());
+
+        Disposable stream = scheduler.scheduleStream(1L, 1, () -> Flux.<String>never()).subscribe();
+        assertEquals(1, scheduler.inFlight());
+        stream.dispose();
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void cancelWhileQueuedLeavesNoTicketBehind() {
+        UpstreamScheduler scheduler = scheduler(guard(1), 10, 100, 5_000);
+        Disposable held = scheduler.schedule(1L, 1, () -> Mono.<String>never()).subscribe();
+        Disposable queued = scheduler.schedule(2L, 1, () -> Mono.just("queued")).subscribe();
+        assertEquals(1.0, meterRegistry.get("openai.scheduler.queued").gauge().value());
+
+        queued.dispose();
+        held.dispose();
+
+        assertEquals(0.0, meterRegistry.get("openai.scheduler.queued").gauge().value());
+        assertEquals(0, scheduler.inFlight());
+        assertEquals("next", scheduler.schedule(3L, 1, () -> Mono.just("next")).block(TIMEOUT));
+    }
+
+    @Test
+    void waitTimeoutReturns503AndKeepsSlotCount() {
+        UpstreamScheduler scheduler = scheduler(guard(1), 10, 100, 50);
+        Disposable held = scheduler.schedule(1L, 1, () -> Mono.<String>never()).subscribe();
+
+        UpstreamException e = assertThrows(UpstreamException.class,
+                () -> scheduler.schedule(2L, 1, () -> Mono.just("late")).block(TIMEOUT));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(ErrorCode.UPSTREAM_UNAVAILABLE, e.getErrorCode());
+        assertEquals(1, scheduler.inFlight());
+        held.dispose();
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void waitTimeoutRacingWithDispatchDoesNotLeakSlots() throws InterruptedException {
+        UpstreamScheduler scheduler = scheduler(guard(1), 10, 100, 1);
+
+        for (int i = 0; i < 200; i++) {
+            Disposable held = scheduler.schedule(1L, 1, () -> Mono.<String>never()).subscribe();
+            CountDownLatch done = new CountDownLatch(2);
+            scheduler.schedule(2L, 1, () -> Mono.just("ok"))
+                    .subscribe(value -> { }, error -> done.countDown(), done::countDown);
+            // 대기 타임아웃(1ms)과 슬롯 반환이 겹치도록 같은 시점에 반환
+            Schedulers.parallel().schedule(() -> {
+                held.dispose();
+                done.countDown();
+            }, 1, TimeUnit.MILLISECONDS);
+
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+        }
+
+        assertEquals(0, scheduler.inFlight());
+        assertEquals(0.0, meterRegistry.get("openai.scheduler.queued").gauge().value());
+    }
+
+    @Test
+    void userQueueFullIs429AndGlobalQueueFullIs503() {
+        UpstreamScheduler scheduler = scheduler(guard(1), 1, 2, 5_000);
+        Disposable held = scheduler.schedule(1L, 1, () -> Mono.<String>never()).subscribe();
+        Disposable first = scheduler.schedule(2L, 1, () -> Mono.just("a")).subscribe();
+
+        assertThrows(RateLimitedException.class, () -> scheduler.schedule(2L, 1, () -> Mono.just("b")).block(TIMEOUT));
+
+        Disposable other = scheduler.schedule(3L, 1, () -> Mono.just("c")).subscribe();
+        UpstreamException e = assertThrows(UpstreamException.class,
+                () -> scheduler.schedule(4L, 1, () -> Mono.just("d")).block(TIMEOUT));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(ErrorCode.UPSTREAM_UNAVAILABLE, e.getErrorCode());
+
+        first.dispose();
+        other.dispose();
+        held.dispose();
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void queuedRequestStartsWhenGuardLimitGrows() {
+        UpstreamGuard guard = guard(1);
+        UpstreamScheduler scheduler = scheduler(guard, 10, 100, 5_000);
+        // 첫 요청이 성공 샘플을 남기고도 슬롯을 계속 쥐고 있음
+        Disposable held = scheduler.schedule(1L, 1, () -> guard.guard(Mono.delay(Duration.ofMillis(50)).thenReturn("sample"))
+                .then(Mono.<String>never())).subscribe();
+
+        assertEquals("queued", scheduler.schedule(2L, 1, () -> Mono.just("queued")).block(TIMEOUT));
+        assertEquals(2, guard.currentLimit());
+
+        held.dispose();
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void releasedSlotIsNotReusedWhenGuardLimitShrinks() {
+        UpstreamGuard guard = guard(2);
+        UpstreamScheduler scheduler = scheduler(guard, 10, 100, 5_000);
+        Disposable held = scheduler.schedule(1L, 1, () -> Mono.<String>never()).subscribe();
+
+        assertThrows(UpstreamException.class, () -> scheduler.schedule(2L, 1,
+                () -> guard.guard(Mono.<String>error(UpstreamException.response(500, "OpenAI API error: 500", null)))).block(TIMEOUT));
+        assertEquals(1, guard.currentLimit());
+
+        AtomicReference<String> result = new AtomicReference<>();
+        Disposable waiting = scheduler.schedule(3L, 1, () -> Mono.just("after-shrink")).subscribe(result::set);
+        assertEquals(1, scheduler.inFlight());
+        assertNull(result.get());
+
+        held.dispose();
+        assertEquals("after-shrink", result.get());
+        assertEquals(0, scheduler.inFlight());
+        waiting.dispose();
+    }
+}
@@ -0,0 +1,66 @@
+package com.chattingapi.chatbot.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UpstreamSingleFlightTest {
+
+    private final UpstreamSingleFlight singleFlight = new UpstreamSingleFlight(true);
+
+    @Test
+    void concurrentCallsShareOneUpstreamCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        List<String> results = new ArrayList<>();
+
+        singleFlight.join("k", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).subscribe(results::add);
+        singleFlight.join("k", () -> {
+            calls.incrementAndGet();
+            return Mono.just("other");
+        }).subscribe(results::add);
+
+        upstream.tryEmitValue("answer");
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of("answer", "answer"), results);
+        assertEquals(0, singleFlight.inFlight());
+
+        assertEquals("fresh", singleFlight.join("k", () -> Mono.just("fresh")).block());
+    }
+
+    @Test
+    void lateStreamSubscriberReceivesAllTokens() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.Many<String> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        singleFlight.joinStream("k", () -> {
+            calls.incrementAndGet();
+            return upstream.asFlux();
+        }).subscribe(first::add);
+        upstream.tryEmitNext("a");
+        singleFlight.joinStream("k", () -> {
+            calls.incrementAndGet();
+            return Flux.just("other");
+        }).subscribe(second::add);
+        upstream.tryEmitNext("b");
+        upstream.tryEmitComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of("a", "b"), first);
+        assertEquals(List.of("a", "b"), second);
+        assertEquals(0, singleFlight.inFlight());
+    }
+}
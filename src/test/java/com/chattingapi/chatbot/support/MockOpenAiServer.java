@@ -0,0 +1,218 @@
+package com.chattingapi.chatbot.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// OpenAI 호환 /chat/completions 목 서버 (JSON + SSE). 테스트 안에서 start() 하거나 단독 실행
+//   ./gradlew mockOpenAi --args="--host=127.0.0.1 --port=18080 --ttft-ms=300 --inter-token-ms=20 --tokens=200 --error-rate=0.01 --rate-limit-rate=0.02"
+// 앱은 OPENAI_BASE_URL=http://localhost:18080/v1, OPENAI_API_KEY=아무 값 으로 연결
+public class MockOpenAiServer implements AutoCloseable {
+
+    private static final Pattern STREAM_FLAG = Pattern.compile("\"stream\"\\s*:\\s*true");
+
+    // ttft: 첫 토큰까지(일반 응답은 전체 지연 = ttft + interToken * (tokens - 1))
+    // retryAfterMs: 429 에 retry-after-ms 로 전달, 1초 이상이면 Retry-After(초)도 함께 전달
+    public record Settings(
+            long ttftMs,
+            long interTokenMs,
+            int tokens,
+            double errorRate,
+            double rateLimitRate,
+            long retryAfterMs
+    ) {
+        public static Settings defaults() {
+            return new Settings(200, 20, 50, 0, 0, 1000);
+        }
+
+        public Settings withLatency(long ttftMs, long interTokenMs) {
+            return new Settings(ttftMs, interTokenMs, tokens, errorRate, rateLimitRate, retryAfterMs);
+        }
+
+        public Settings withTokens(int tokens) {
+            return new Settings(ttftMs, interTokenMs, tokens, errorRate, rateLimitRate, retryAfterMs);
+        }
+
+        public Settings withErrorRate(double errorRate) {
+            return new Settings(ttftMs, interTokenMs, tokens, errorRate, rateLimitRate, retryAfterMs);
+        }
+
+        public Settings withRateLimit(double rateLimitRate, long retryAfterMs) {
+            return new Settings(ttftMs, interTokenMs, tokens, errorRate, rateLimitRate, retryAfterMs);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+    private volatile Settings settings;
+
+    public MockOpenAiServer(String host, int port, Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 1024);
+        this.server.createContext("/", this::handle);
+        // 지연을 sleep 으로 흉내 내므로 요청마다 가상 스레드 하나
+        this.server.setExecutor(executor);
+    }
+
+    public static MockOpenAiServer start(Settings settings) throws IOException {
+        MockOpenAiServer mock = new MockOpenAiServer("127.0.0.1", 0, settings);
+        mock.server.start();
+        return mock;
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1";
+    }
+
+    public void settings(Settings settings) {
+        this.settings = settings;
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public void resetRequests() {
+        requests.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith("/chat/completions")) {
+                sendError(exchange, 404, "not_found", "Unknown path");
+                return;
+            }
+            String auth = exchange.getRequestHeaders().getFirst("Authorization");
+            if (auth == null || !auth.startsWith("Bearer ") || auth.length() == "Bearer ".length()) {
+                sendError(exchange, 401, "invalid_api_key", "Missing API key");
+                return;
+            }
+            requests.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Settings current = settings;
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < current.rateLimitRate()) {
+                long retryAfterMs = current.retryAfterMs();
+                exchange.getResponseHeaders().set("retry-after-ms", Long.toString(retryAfterMs));
+                if (retryAfterMs >= 1000) {
+                    exchange.getResponseHeaders().set("Retry-After", Long.toString((retryAfterMs + 999) / 1000));
+                }
+                sendError(exchange, 429, "rate_limit_exceeded", "Rate limit reached (mock)");
+                return;
+            }
+            if (roll < current.rateLimitRate() + current.errorRate()) {
+                sendError(exchange, 500, "server_error", "Internal error (mock)");
+                return;
+            }
+
+            if (STREAM_FLAG.matcher(body).find()) {
+                stream(exchange, current);
+            } else {
+                complete(exchange, current);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void complete(HttpExchange exchange, Settings current) throws IOException, InterruptedException {
+        Thread.sleep(current.ttftMs() + current.interTokenMs() * Math.max(0, current.tokens() - 1));
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < current.tokens(); i++) {
+            content.append(token(i));
+        }
+        String json = "{\"id\":\"chatcmpl-mock\",\"object\":\"chat.completion\",\"created\":" + epochSeconds()
+                + ",\"model\":\"mock\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\""
+                + content + "\"},\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":0,\"completion_tokens\":"
+                + current.tokens() + ",\"total_tokens\":" + current.tokens() + "}}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private void stream(HttpExchange exchange, Settings current) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        Thread.sleep(current.ttftMs());
+        for (int i = 0; i < current.tokens(); i++) {
+            if (i > 0) {
+                Thread.sleep(current.interTokenMs());
+            }
+            writeEvent(out, "{\"id\":\"chatcmpl-mock\",\"object\":\"chat.completion.chunk\",\"created\":" + epochSeconds()
+                    + ",\"model\":\"mock\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + token(i)
+                    + "\"},\"finish_reason\":null}]}");
+        }
+        writeEvent(out, "{\"id\":\"chatcmpl-mock\",\"object\":\"chat.completion.chunk\",\"created\":" + epochSeconds()
+                + ",\"model\":\"mock\",\"choices\":[{\"index\":0,\"delta\":{},\"finish_reason\":\"stop\"}]}");
+        writeEvent(out, "[DONE]");
+    }
+
+    private static void writeEvent(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String code, String message) throws IOException {
+        byte[] bytes = ("{\"error\":{\"message\":\"" + message + "\",\"type\":\"" + code + "\",\"code\":\"" + code + "\"}}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static String token(int index) {
+        return index == 0 ? "tok0" : " tok" + index;
+    }
+
+    private static long epochSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = "127.0.0.1";
+        int port = 18080;
+        Settings settings = Settings.defaults();
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected --key=value: " + arg);
+            }
+            String value = kv[1];
+            switch (kv[0]) {
+                case "host" -> host = value;
+                case "port" -> port = Integer.parseInt(value);
+                case "ttft-ms" -> settings = settings.withLatency(Long.parseLong(value), settings.interTokenMs());
+                case "inter-token-ms" -> settings = settings.withLatency(settings.ttftMs(), Long.parseLong(value));
+                case "tokens" -> settings = settings.withTokens(Integer.parseInt(value));
+                case "error-rate" -> settings = settings.withErrorRate(Double.parseDouble(value));
+                case "rate-limit-rate" -> settings = settings.withRateLimit(Double.parseDouble(value), settings.retryAfterMs());
+                case "retry-after-ms" -> settings = settings.withRateLimit(settings.rateLimitRate(), Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown option: " + kv[0]);
+            }
+        }
+        MockOpenAiServer mock = new MockOpenAiServer(host, port, settings);
+        mock.server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(mock::close));
+        System.out.println("Mock OpenAI listening baseUrl=" + mock.baseUrl() + " settings=" + settings);
+    }
+}